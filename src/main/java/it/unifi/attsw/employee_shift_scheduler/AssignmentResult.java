@@ -0,0 +1,33 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of AssignmentSolver: open shifts grouped by the employee id they were
+ * assigned to (candidate order), plus the shifts no candidate could take.
+ */
+public final class AssignmentResult {
+
+    private final Map<String, List<Shift>> byEmployee;
+    private final List<Shift> unassigned;
+
+    AssignmentResult(Map<String, List<Shift>> byEmployee, List<Shift> unassigned) {
+        this.byEmployee = Collections.unmodifiableMap(byEmployee);
+        this.unassigned = Collections.unmodifiableList(unassigned);
+    }
+
+    public Map<String, List<Shift>> getAssignments() { return byEmployee; }
+    public List<Shift> getUnassigned() { return unassigned; }
+
+    public int assignedCount() {
+        return byEmployee.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AssignmentResult{assigned=" + assignedCount() + ", employees=" + byEmployee.size()
+                + ", unassigned=" + unassigned.size() + "}";
+    }
+}
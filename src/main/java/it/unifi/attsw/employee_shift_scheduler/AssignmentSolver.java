@@ -0,0 +1,339 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Assigns open shifts to candidate employees without breaking the Employee rules
+ * (no overlaps, weekly limit), spreading the assigned minutes as evenly as possible.
+ *
+ * - Working model: one immutable ShiftSchedule per candidate, starting from the
+ *   employee's current snapshot. Trying a move is a delta check on that snapshot
+ *   (ShiftSchedule.accepts: O(log n) overlap probe plus the touched weeks), and applying
+ *   or undoing it is an O(log n) persistent update, so copying a whole solution is O(E).
+ * - Greedy construction: shifts in start order, each to the least-loaded feasible candidate.
+ * - Local search: one worker per pool thread, each from the greedy solution with its own
+ *   seed (portfolio). Moves: insert an unassigned shift, possibly ejecting a clashing or
+ *   same-week shift to another candidate; relocate a shift to a less-loaded candidate.
+ *   The objective (assigned count, then sum of squared loads) is updated in O(1) per move.
+ * - The best worker result wins. Nothing is written to the employees; see
+ *   EmployeeService.autoAssign for committing a result.
+ */
+public class AssignmentSolver {
+
+    private static final int CANDIDATE_SAMPLE = 32;
+
+    private final ForkJoinPool pool;
+    private final Duration timeBudget;
+    private final long seed;
+
+    public AssignmentSolver() {
+        this(ForkJoinPool.commonPool(), Duration.ofSeconds(2), 42L);
+    }
+
+    /**
+     * @param timeBudget upper bound for the local search phase (it also stops once no move
+     *                   has improved the solution for a while)
+     * @param seed       base seed of the workers
+     */
+    public AssignmentSolver(ForkJoinPool pool, Duration timeBudget, long seed) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.timeBudget = Objects.requireNonNull(timeBudget, "timeBudget");
+        this.seed = seed;
+    }
+
+    public AssignmentResult solve(Collection<Shift> openShifts, List<Employee> candidates) {
+        Objects.requireNonNull(openShifts, "openShifts");
+        Objects.requireNonNull(candidates, "candidates");
+        Problem p = new Problem(new ArrayList<>(openShifts), candidates);
+        Solution greedy = p.greedy();
+
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        List<RecursiveTask<Solution>> workers = new ArrayList<>();
+        for (int w = 0; w < pool.getParallelism(); w++) {
+            long workerSeed = seed + w;
+            workers.add(new RecursiveTask<Solution>() {
+                @Override protected Solution compute() {
+                    return p.localSearch(greedy.copy(), new Random(workerSeed), deadline);
+                }
+            });
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override protected Void compute() {
+                ForkJoinTask.invokeAll(workers);
+                return null;
+            }
+        });
+
+        Solution best = greedy;
+        for (RecursiveTask<Solution> w : workers) {
+            Solution s = w.join();
+            if (s.isBetterThan(best)) best = s;
+        }
+        return p.toResult(best);
+    }
+
+    /** Immutable input shared by all workers. */
+    private static final class Problem {
+        final Shift[] shifts;
+        final long[] minutes;
+        final Map<String, Integer> shiftIndex = new HashMap<>();
+        final List<Employee> candidates;
+        final ShiftSchedule[] base;
+
+        Problem(List<Shift> open, List<Employee> candidates) {
+            this.shifts = open.toArray(new Shift[0]);
+            this.minutes = new long[shifts.length];
+            for (int i = 0; i < shifts.length; i++) {
+                Shift s = Objects.requireNonNull(shifts[i], "shift");
+                minutes[i] = s.duration().toMinutes();
+                if (shiftIndex.put(s.getId(), i) != null) {
+                    throw new IllegalArgumentException("Duplicate open shift id: " + s.getId());
+                }
+            }
+            this.candidates = candidates;
+            this.base = new ShiftSchedule[candidates.size()];
+            for (int e = 0; e < base.length; e++) {
+                base[e] = candidates.get(e).snapshot();
+            }
+        }
+
+        Solution greedy() {
+            Solution sol = new Solution(this);
+            Integer[] order = new Integer[shifts.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> ShiftIntervalTree.ORDER.compare(shifts[a], shifts[b]));
+
+            // candidates keyed by (load, index): the first feasible one is the least loaded
+            TreeSet<long[]> byLoad = new TreeSet<>((x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(x[1], y[1]));
+            for (int e = 0; e < base.length; e++) {
+                byLoad.add(new long[] {0, e});
+            }
+            for (int i : order) {
+                for (long[] key : byLoad) {
+                    int e = (int) key[1];
+                    if (sol.schedules[e].accepts(shifts[i])) {
+                        byLoad.remove(key);
+                        sol.assign(i, e);
+                        byLoad.add(new long[] {sol.load[e], e});
+                        break;
+                    }
+                }
+            }
+            return sol;
+        }
+
+        Solution localSearch(Solution sol, Random rnd, long deadline) {
+            if (base.length == 0 || shifts.length == 0) return sol;
+            int maxStale = Math.max(2_000, 4 * shifts.length);
+            int stale = 0;
+            for (int iteration = 1; stale < maxStale; iteration++) {
+                if ((iteration & 63) == 0 && System.nanoTime() >= deadline) break;
+                boolean improved = !sol.unassigned.isEmpty() && rnd.nextInt(4) != 0
+                        ? insert(sol, sol.unassigned.random(rnd), rnd)
+                        : rebalance(sol, rnd);
+                stale = improved ? 0 : stale + 1;
+            }
+            return sol;
+        }
+
+        /** Place unassigned shift u, ejecting at most one solver-assigned shift to a third candidate. */
+        private boolean insert(Solution sol, int u, Random rnd) {
+            Shift shift = shifts[u];
+            for (int t = 0; t < Math.min(CANDIDATE_SAMPLE, base.length); t++) {
+                int b = rnd.nextInt(base.length);
+                ShiftSchedule sb = sol.schedules[b];
+                if (sb.accepts(shift)) {
+                    sol.assign(u, b);
+                    return true;
+                }
+                int v = ejectable(sol, b, shift, rnd);
+                if (v < 0) continue;
+                sol.unassign(v);
+                if (sol.schedules[b].accepts(shift)) {
+                    sol.assign(u, b);
+                    int c = placeElsewhere(sol, v, b, rnd);
+                    if (c >= 0) {
+                        sol.assign(v, c);
+                        return true;
+                    }
+                    sol.unassign(u);
+                }
+                sol.assign(v, b);
+            }
+            return false;
+        }
+
+        /** A solver-assigned shift of b standing in the way: the overlapping one, or one in the same week. */
+        private int ejectable(Solution sol, int b, Shift shift, Random rnd) {
+            ShiftSchedule sb = sol.schedules[b];
+            Shift clash = sb.findOverlap(shift.getStart(), shift.getEnd());
+            if (clash != null) return ownedBy(sol, clash, b);
+            YearWeek week = YearWeek.from(shift.getStart(), sb.weekZone());
+            Instant from = week.startIn(sb.weekZone());
+            List<Shift> sameWeek = sb.findOverlapping(from, week.plusWeeks(1).startIn(sb.weekZone()));
+            if (sameWeek.isEmpty()) return -1;
+            return ownedBy(sol, sameWeek.get(rnd.nextInt(sameWeek.size())), b);
+        }
+
+        private int ownedBy(Solution sol, Shift s, int employee) {
+            Integer i = shiftIndex.get(s.getId());
+            return i != null && sol.owner[i] == employee ? i : -1;
+        }
+
+        private int placeElsewhere(Solution sol, int v, int not, Random rnd) {
+            for (int t = 0; t < Math.min(CANDIDATE_SAMPLE, base.length); t++) {
+                int c = rnd.nextInt(base.length);
+                if (c != not && sol.schedules[c].accepts(shifts[v])) return c;
+            }
+            return -1;
+        }
+
+        /** Move an assigned shift to a less-loaded candidate when that lowers the sum of squared loads. */
+        private boolean rebalance(Solution sol, Random rnd) {
+            if (sol.assigned == 0) return false;
+            int i = rnd.nextInt(shifts.length);
+            int a = sol.owner[i];
+            if (a < 0) return false;
+            int b = rnd.nextInt(base.length);
+            // delta of sum of squares = 2m(load[b] - load[a] + m): improving iff load[b] + m < load[a]
+            if (b == a || sol.load[b] + minutes[i] >= sol.load[a]) return false;
+            if (!sol.schedules[b].accepts(shifts[i])) return false;
+            sol.unassign(i);
+            sol.assign(i, b);
+            return true;
+        }
+
+        AssignmentResult toResult(Solution sol) {
+            Map<String, List<Shift>> byEmployee = new LinkedHashMap<>();
+            List<Shift> unassigned = new ArrayList<>();
+            for (int i = 0; i < shifts.length; i++) {
+                int e = sol.owner[i];
+                if (e < 0) {
+                    unassigned.add(shifts[i]);
+                } else {
+                    byEmployee.computeIfAbsent(candidates.get(e).getEmployeeId(), k -> new ArrayList<>()).add(shifts[i]);
+                }
+            }
+            return new AssignmentResult(byEmployee, unassigned);
+        }
+    }
+
+    /** Mutable working solution; cheap to copy because schedules are persistent. */
+    private static final class Solution {
+        final Problem p;
+        final ShiftSchedule[] schedules;
+        final int[] owner;
+        final long[] load;
+        final IndexSet unassigned;
+        int assigned;
+        long squares;
+
+        Solution(Problem p) {
+            this.p = p;
+            this.schedules = p.base.clone();
+            this.owner = new int[p.shifts.length];
+            Arrays.fill(owner, -1);
+            this.load = new long[p.base.length];
+            this.unassigned = new IndexSet(p.shifts.length, true);
+        }
+
+        private Solution(Solution o) {
+            this.p = o.p;
+            this.schedules = o.schedules.clone();
+            this.owner = o.owner.clone();
+            this.load = o.load.clone();
+            this.unassigned = o.unassigned.copy();
+            this.assigned = o.assigned;
+            this.squares = o.squares;
+        }
+
+        Solution copy() {
+            return new Solution(this);
+        }
+
+        void assign(int i, int e) {
+            schedules[e] = schedules[e].withShift(p.shifts[i]);
+            owner[i] = e;
+            setLoad(e, load[e] + p.minutes[i]);
+            unassigned.remove(i);
+            assigned++;
+        }
+
+        void unassign(int i) {
+            int e = owner[i];
+            schedules[e] = schedules[e].withoutShift(p.shifts[i].getId());
+            owner[i] = -1;
+            setLoad(e, load[e] - p.minutes[i]);
+            unassigned.add(i);
+            assigned--;
+        }
+
+        private void setLoad(int e, long value) {
+            squares += value * value - load[e] * load[e];
+            load[e] = value;
+        }
+
+        boolean isBetterThan(Solution o) {
+            return assigned != o.assigned ? assigned > o.assigned : squares < o.squares;
+        }
+    }
+
+    /** Set of small ints with O(1) add/remove/random pick. */
+    private static final class IndexSet {
+        private final int[] items;
+        private final int[] pos;
+        private int size;
+
+        IndexSet(int capacity, boolean full) {
+            items = new int[capacity];
+            pos = new int[capacity];
+            Arrays.fill(pos, -1);
+            if (full) {
+                for (int i = 0; i < capacity; i++) add(i);
+            }
+        }
+
+        private IndexSet(IndexSet o) {
+            items = o.items.clone();
+            pos = o.pos.clone();
+            size = o.size;
+        }
+
+        IndexSet copy() { return new IndexSet(this); }
+
+        boolean isEmpty() { return size == 0; }
+
+        void add(int i) {
+            if (pos[i] >= 0) return;
+            pos[i] = size;
+            items[size++] = i;
+        }
+
+        void remove(int i) {
+            int at = pos[i];
+            if (at < 0) return;
+            int last = items[--size];
+            items[at] = last;
+            pos[last] = at;
+            pos[i] = -1;
+        }
+
+        int random(Random rnd) {
+            return items[rnd.nextInt(size)];
+        }
+    }
+}
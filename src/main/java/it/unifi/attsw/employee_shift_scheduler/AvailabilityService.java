@@ -0,0 +1,153 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import it.unifi.attsw.employee_shift_scheduler.repository.EmployeeRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Availability lookups answered from the employees' occupancy bitmaps
+ * (Employee.occupancyWords) instead of walking shift lists.
+ *
+ * - Several employees are combined by OR-ing their words: a slot is free for the team
+ *   only if it is free for everybody.
+ * - "Is anybody busy in [t1, t2)" is an AND of the words with a mask of the window.
+ * - Free runs are found by jumping over whole words and using trailing-zero counts.
+ *
+ * Results are on the 15-minute grid: windows are shrunk to whole free slots, and an
+ * employee counts as busy in a slot they work any part of.
+ */
+public class AvailabilityService {
+
+    private static final int W = OccupancyBitmap.WORDS_PER_WEEK;
+    private static final int SLOTS = OccupancyBitmap.SLOTS_PER_WEEK;
+
+    private final EmployeeRepository repo;
+
+    public AvailabilityService(EmployeeRepository repo) {
+        this.repo = Objects.requireNonNull(repo, "repo");
+    }
+
+    /**
+     * Maximal free windows of at least the given duration inside window, for one employee.
+     */
+    public List<TimeWindow> findFreeSlots(String employeeId, Duration duration, TimeWindow window) {
+        return findCommonFreeSlots(List.of(employeeId), duration, window);
+    }
+
+    /**
+     * Maximal windows of at least the given duration inside window in which all the given
+     * employees are free.
+     */
+    public List<TimeWindow> findCommonFreeSlots(Collection<String> employeeIds, Duration duration, TimeWindow window) {
+        Objects.requireNonNull(duration, "duration");
+        Objects.requireNonNull(window, "window");
+        return freeRuns(load(employeeIds), duration, window);
+    }
+
+    /**
+     * Employees with no shift in [from, to).
+     */
+    public List<Employee> findEmployeesFreeBetween(Instant from, Instant to) {
+        TimeWindow window = new TimeWindow(from, to);
+        long firstSlot = OccupancyBitmap.slotOf(window.getStart());
+        long endSlot = OccupancyBitmap.slotCeil(window.getEnd());
+        List<Employee> free = new ArrayList<>();
+        for (Employee e : repo.findAll()) {
+            if (isFree(List.of(e), firstSlot, endSlot)) free.add(e);
+        }
+        return free;
+    }
+
+    /**
+     * Whether all the given employees are free during [from, to).
+     */
+    public boolean areAllFree(Collection<String> employeeIds, Instant from, Instant to) {
+        TimeWindow window = new TimeWindow(from, to);
+        return isFree(load(employeeIds), OccupancyBitmap.slotOf(window.getStart()), OccupancyBitmap.slotCeil(window.getEnd()));
+    }
+
+    // --- bit work ---
+
+    private List<Employee> load(Collection<String> employeeIds) {
+        Objects.requireNonNull(employeeIds, "employeeIds");
+        List<Employee> out = new ArrayList<>(employeeIds.size());
+        for (String id : employeeIds) {
+            out.add(repo.findById(id).orElseThrow(() -> new IllegalArgumentException("Employee not found: " + id)));
+        }
+        return out;
+    }
+
+    /** OR of the employees' words for one week. */
+    private static long[] union(List<Employee> employees, long week) {
+        long[] acc = new long[W];
+        for (Employee e : employees) {
+            long[] words = e.occupancyWords(week);
+            for (int i = 0; i < W; i++) acc[i] |= words[i];
+        }
+        return acc;
+    }
+
+    private static boolean isFree(List<Employee> employees, long firstSlot, long endSlot) {
+        for (long week = Math.floorDiv(firstSlot, SLOTS); week * SLOTS < endSlot; week++) {
+            long base = week * SLOTS;
+            long[] mask = new long[W];
+            OccupancyBitmap.setRange(mask, (int) (Math.max(firstSlot, base) - base), (int) (Math.min(endSlot, base + SLOTS) - base));
+            for (Employee e : employees) {
+                long[] words = e.occupancyWords(week);
+                for (int i = 0; i < W; i++) {
+                    if ((words[i] & mask[i]) != 0) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<TimeWindow> freeRuns(List<Employee> employees, Duration duration, TimeWindow window) {
+        long firstSlot = OccupancyBitmap.slotCeil(window.getStart());
+        long endSlot = OccupancyBitmap.slotOf(window.getEnd());
+        List<TimeWindow> out = new ArrayList<>();
+        long runStart = -1;
+        boolean inRun = false;
+        for (long week = Math.floorDiv(firstSlot, SLOTS); week * SLOTS < endSlot; week++) {
+            long base = week * SLOTS;
+            long[] busy = union(employees, week);
+            int from = (int) (Math.max(firstSlot, base) - base);
+            int to = (int) (Math.min(endSlot, base + SLOTS) - base);
+            int pos = from;
+            while (pos < to) {
+                long word = busy[pos >>> 6];
+                int bit = pos & 63;
+                int step;
+                if ((word >>> bit & 1L) != 0) {
+                    step = Long.numberOfTrailingZeros(~word >>> bit);
+                    if (inRun) {
+                        emit(out, runStart, base + pos, duration);
+                        inRun = false;
+                    }
+                } else {
+                    step = Long.numberOfTrailingZeros(word >>> bit);
+                    if (!inRun) {
+                        runStart = base + pos;
+                        inRun = true;
+                    }
+                }
+                pos = Math.min(to, pos + Math.min(step, 64 - bit));
+            }
+        }
+        if (inRun) emit(out, runStart, endSlot, duration);
+        return out;
+    }
+
+    private static void emit(List<TimeWindow> out, long fromSlot, long toSlot, Duration duration) {
+        Instant start = OccupancyBitmap.slotStart(fromSlot);
+        Instant end = OccupancyBitmap.slotStart(toSlot);
+        if (end.isAfter(start) && Duration.between(start, end).compareTo(duration) >= 0) {
+            out.add(new TimeWindow(start, end));
+        }
+    }
+}
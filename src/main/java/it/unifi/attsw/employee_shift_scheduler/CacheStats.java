@@ -0,0 +1,41 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+/**
+ * Immutable snapshot of cache counters (see CachingEmployeeRepository.stats()).
+ *
+ * - hits: lookups answered from the cache alone, including cached "not found" answers;
+ * - revalidations: expired entries served again after a version check showed them unchanged;
+ * - misses: lookups that loaded the employee from the delegate;
+ * - evictions: entries dropped because the cache was full.
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long revalidations;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStats(long hits, long revalidations, long misses, long evictions) {
+        this.hits = hits;
+        this.revalidations = revalidations;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public long getHits() { return hits; }
+    public long getRevalidations() { return revalidations; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+
+    /** hits / all lookups, or 0 before the first lookup. */
+    public double getHitRate() {
+        long requests = hits + revalidations + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hits + ", revalidations=" + revalidations + ", misses=" + misses
+                + ", evictions=" + evictions + ", hitRate=" + String.format("%.2f", getHitRate()) + "}";
+    }
+}
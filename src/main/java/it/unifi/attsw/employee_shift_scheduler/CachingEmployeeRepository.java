@@ -0,0 +1,358 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import it.unifi.attsw.employee_shift_scheduler.repository.EmployeeRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Read-through / write-through cache in front of any EmployeeRepository, keyed by employeeId.
+ *
+ * - Bounded by maximumSize with W-TinyLFU eviction (TinyLfuCache): frequently read employees
+ *   stay cached even while a listing or a scan walks over every id once.
+ * - Entries expire `ttl` after they were loaded, written or revalidated, which bounds how
+ *   long changes made by other processes go unnoticed.
+ * - findById / findAllById answer from the cache, including "not found" (negative entries),
+ *   so repeated reads of hot employees do not reach the database.
+ * - Revalidation mode (setRevalidating): an expired entry is kept and checked against the
+ *   delegate's findVersions (ids and versions only, one batched query per findAllById or
+ *   revalidate); only employees whose version changed are loaded again.
+ * - save / saveAll / saveIfUnchanged / deleteById / deleteAllById / addShiftIfNoConflict
+ *   write to the delegate first and then update the cache; when the delegate throws (or
+ *   saveIfUnchanged finds a newer version), the entries are dropped.
+ * - Copy-on-read and copy-on-write (O(1), see Employee's copy constructor): callers never
+ *   get the cached instance, so a change only becomes visible after save().
+ * - A load racing with a write is not cached (a write counter is checked before filling),
+ *   so a slow read cannot overwrite a newer value.
+ * - Listings, summaries, pages, streams and range queries go straight to the delegate.
+ */
+public class CachingEmployeeRepository implements EmployeeRepository {
+
+    /** Cached answer for one id: the employee (null when known missing) and its version. */
+    private static final class Cached {
+        final Employee employee;
+        final long version;
+        final long expiresAt;
+
+        Cached(Employee employee, long expiresAt) {
+            this.employee = employee;
+            this.version = employee == null ? 0 : employee.getVersion();
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isFresh(long now) {
+            return expiresAt - now > 0;
+        }
+
+        /** Whether the stored version (null: no longer stored) is still the cached one. */
+        boolean isCurrent(Long storedVersion) {
+            return employee == null ? storedVersion == null : storedVersion != null && storedVersion == version;
+        }
+
+        Optional<Employee> copy() {
+            return employee == null ? Optional.empty() : Optional.of(new Employee(employee));
+        }
+    }
+
+    private final EmployeeRepository delegate;
+    private final TinyLfuCache<String, Cached> cache;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private volatile boolean revalidating;
+    private final AtomicLong writes = new AtomicLong();
+    private final Object fillLock = new Object();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingEmployeeRepository(EmployeeRepository delegate, int maximumSize, Duration ttl) {
+        this(delegate, maximumSize, ttl, System::nanoTime);
+    }
+
+    /** ticker: nanosecond clock used for expiry (tests pass a fake one). */
+    CachingEmployeeRepository(EmployeeRepository delegate, int maximumSize, Duration ttl, LongSupplier ticker) {
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be positive");
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = new TinyLfuCache<>(maximumSize);
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Revalidation mode: expired entries are checked with findVersions and reloaded only
+     * when their version changed, instead of being loaded again in full. Off by default.
+     */
+    public void setRevalidating(boolean revalidating) {
+        this.revalidating = revalidating;
+    }
+
+    public boolean isRevalidating() {
+        return revalidating;
+    }
+
+    /** Hit, revalidation, miss and eviction counts since creation. */
+    public CacheStats stats() {
+        return new CacheStats(hits.get(), revalidations.get(), misses.get(), cache.evictionCount());
+    }
+
+    /** Number of cached entries, negative ones included. */
+    public int cachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Checks every cached entry with one findVersions call and reloads, with one findAllById
+     * call, only the employees whose version changed; the others stay cached for another ttl.
+     * Returns the number of entries that changed.
+     */
+    public int revalidate() {
+        Map<String, Cached> entries = cache.entries();
+        if (entries.isEmpty()) return 0;
+        long stamp = writes.get();
+        Map<String, Long> versions = delegate.findVersions(entries.keySet());
+        long expiresAt = ticker.getAsLong() + ttlNanos;
+
+        Map<String, Cached> refreshed = new HashMap<>();
+        List<String> changed = new ArrayList<>();
+        entries.forEach((id, c) -> {
+            if (c.isCurrent(versions.get(id))) {
+                refreshed.put(id, new Cached(c.employee, expiresAt));
+            } else {
+                changed.add(id);
+                refreshed.put(id, new Cached(null, expiresAt));
+            }
+        });
+        if (!changed.isEmpty()) {
+            for (Employee e : delegate.findAllById(changed)) {
+                refreshed.put(e.getEmployeeId(), new Cached(new Employee(e), expiresAt));
+            }
+        }
+        fill(stamp, () -> refreshed.forEach(cache::put));
+        return changed.size();
+    }
+
+    // --- reads ---
+
+    @Override
+    public Optional<Employee> findById(String id) {
+        if (id == null) return Optional.empty();
+        Cached cached = cache.get(id);
+        if (cached != null && cached.isFresh(ticker.getAsLong())) {
+            hits.incrementAndGet();
+            return cached.copy();
+        }
+
+        long stamp = writes.get();
+        if (cached != null && revalidating && cached.isCurrent(delegate.findVersions(List.of(id)).get(id))) {
+            revalidations.incrementAndGet();
+            Cached renewed = new Cached(cached.employee, ticker.getAsLong() + ttlNanos);
+            fill(stamp, () -> cache.put(id, renewed));
+            return cached.copy();
+        }
+
+        misses.incrementAndGet();
+        Optional<Employee> loaded = delegate.findById(id);
+        Cached stored = new Cached(loaded.map(Employee::new).orElse(null), ticker.getAsLong() + ttlNanos);
+        fill(stamp, () -> cache.put(id, stored));
+        return loaded;
+    }
+
+    @Override
+    public List<Employee> findAllById(Collection<String> ids) {
+        long now = ticker.getAsLong();
+        Map<String, Employee> found = new HashMap<>();
+        Map<String, Cached> expired = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || found.containsKey(id) || expired.containsKey(id) || missing.contains(id)) continue;
+            Cached cached = cache.get(id);
+            if (cached != null && cached.isFresh(now)) {
+                hits.incrementAndGet();
+                if (cached.employee != null) found.put(id, new Employee(cached.employee));
+            } else if (cached != null && revalidating) {
+                expired.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        long stamp = writes.get();
+        Map<String, Cached> loaded = new HashMap<>();
+        if (!expired.isEmpty()) {
+            Map<String, Long> versions = delegate.findVersions(expired.keySet());
+            long expiresAt = ticker.getAsLong() + ttlNanos;
+            expired.forEach((id, cached) -> {
+                if (cached.isCurrent(versions.get(id))) {
+                    revalidations.incrementAndGet();
+                    loaded.put(id, new Cached(cached.employee, expiresAt));
+                    if (cached.employee != null) found.put(id, new Employee(cached.employee));
+                } else {
+                    missing.add(id);
+                }
+            });
+        }
+        if (!missing.isEmpty()) {
+            misses.addAndGet(missing.size());
+            long expiresAt = ticker.getAsLong() + ttlNanos;
+            for (String id : missing) loaded.put(id, new Cached(null, expiresAt));
+            for (Employee e : delegate.findAllById(List.copyOf(missing))) {
+                found.put(e.getEmployeeId(), e);
+                loaded.put(e.getEmployeeId(), new Cached(new Employee(e), expiresAt));
+            }
+        }
+        if (!loaded.isEmpty()) fill(stamp, () -> loaded.forEach(cache::put));
+
+        List<Employee> out = new ArrayList<>(found.size());
+        for (String id : ids) {
+            Employee e = id == null ? null : found.get(id);
+            if (e != null) out.add(e);
+        }
+        return out;
+    }
+
+    @Override
+    public Map<String, Long> findVersions(Collection<String> ids) {
+        return delegate.findVersions(ids);
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Employee> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Employee> streamByRole(String role) {
+        return delegate.streamByRole(role);
+    }
+
+    @Override
+    public List<EmployeeSummary> findAllSummaries(YearWeek week) {
+        return delegate.findAllSummaries(week);
+    }
+
+    @Override
+    public List<EmployeeSummary> findPage(String afterEmployeeId, int limit, EmployeeSort sort) {
+        return delegate.findPage(afterEmployeeId, limit, sort);
+    }
+
+    @Override
+    public List<Employee> findEmployeesWithShiftsBetween(Instant from, Instant to) {
+        return delegate.findEmployeesWithShiftsBetween(from, to);
+    }
+
+    @Override
+    public ShiftStore loadShiftStore() {
+        return delegate.loadShiftStore();
+    }
+
+    // --- writes ---
+
+    @Override
+    public Employee save(Employee employee) {
+        String id = employee.getEmployeeId();
+        Employee saved = write(List.of(id), () -> delegate.save(employee));
+        Cached stored = new Cached(new Employee(saved), ticker.getAsLong() + ttlNanos);
+        publish(() -> cache.put(id, stored));
+        return saved;
+    }
+
+    @Override
+    public List<Employee> saveAll(Collection<Employee> employees) {
+        List<String> ids = employees.stream().map(Employee::getEmployeeId).toList();
+        List<Employee> saved = write(ids, () -> delegate.saveAll(employees));
+        long expiresAt = ticker.getAsLong() + ttlNanos;
+        List<Cached> stored = saved.stream().map(e -> new Cached(new Employee(e), expiresAt)).toList();
+        publish(() -> stored.forEach(c -> cache.put(c.employee.getEmployeeId(), c)));
+        return saved;
+    }
+
+    @Override
+    public boolean saveIfUnchanged(Employee employee) {
+        String id = employee.getEmployeeId();
+        boolean saved = write(List.of(id), () -> delegate.saveIfUnchanged(employee));
+        Cached stored = saved ? new Cached(new Employee(employee), ticker.getAsLong() + ttlNanos) : null;
+        publish(() -> {
+            if (stored != null) cache.put(id, stored);
+            else cache.invalidate(id);
+        });
+        return saved;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        write(id == null ? List.of() : List.of(id), () -> {
+            delegate.deleteById(id);
+            return null;
+        });
+        Cached missing = new Cached(null, ticker.getAsLong() + ttlNanos);
+        publish(() -> {
+            if (id != null) cache.put(id, missing);
+        });
+    }
+
+    @Override
+    public void deleteAllById(Collection<String> ids) {
+        List<String> keys = ids.stream().filter(Objects::nonNull).toList();
+        write(keys, () -> {
+            delegate.deleteAllById(ids);
+            return null;
+        });
+        Cached missing = new Cached(null, ticker.getAsLong() + ttlNanos);
+        publish(() -> keys.forEach(id -> cache.put(id, missing)));
+    }
+
+    @Override
+    public Optional<Employee> addShiftIfNoConflict(String employeeId, Shift shift) {
+        List<String> keys = employeeId == null ? List.of() : List.of(employeeId);
+        Optional<Employee> updated = write(keys, () -> delegate.addShiftIfNoConflict(employeeId, shift));
+        Optional<Cached> stored = updated.map(e -> new Cached(new Employee(e), ticker.getAsLong() + ttlNanos));
+        publish(() -> stored.ifPresent(c -> cache.put(employeeId, c)));
+        return updated;
+    }
+
+    // --- consistency between loads and writes ---
+
+    /** Runs a delegate write; any load started before it completes will not be cached. */
+    private <T> T write(Collection<String> ids, Supplier<T> operation) {
+        writes.incrementAndGet();
+        try {
+            return operation.get();
+        } catch (RuntimeException ex) {
+            publish(() -> ids.forEach(cache::invalidate));
+            throw ex;
+        }
+    }
+
+    /** Applies the outcome of a write to the cache. */
+    private void publish(Runnable update) {
+        synchronized (fillLock) {
+            update.run();
+            writes.incrementAndGet();
+        }
+    }
+
+    /** Caches a loaded value unless a write started since `stamp` was taken. */
+    private void fill(long stamp, Runnable update) {
+        synchronized (fillLock) {
+            if (writes.get() == stamp) update.run();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package it.unifi.attsw.employee_shift_scheduler;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -95,6 +96,19 @@ public class Controller {
                 .orElse(Collections.emptyList());
     }
 
+    /**
+     * Shifts of the employee overlapping [from, to) (e.g. the visible week), ordered by start.
+     * GUI-friendly: errors are shown on the view and an empty list is returned.
+     */
+    public List<Shift> listShiftsBetween(String employeeId, Instant from, Instant to) {
+        try {
+            return employeeService.shiftsBetween(employeeId, from, to);
+        } catch (RuntimeException | Error ex) {
+            view.showError("Cannot list shifts: " + ex.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
     public Optional<Employee> deleteById(String employeeId) {
         return employeeService.deleteById(employeeId);
     }
@@ -122,6 +136,29 @@ public class Controller {
         return allEmployees();
     }
 
+    /**
+     * Lightweight listing (id, name, role, shift count, current-week hours) that does not
+     * load shifts; for lists that only show who is there.
+     */
+    public List<EmployeeSummary> findAllSummaries() {
+        return employeeService.findAllSummaries();
+    }
+
+    /**
+     * One page of the summary listing, keyset-paginated on employeeId: pass the last id of
+     * the previous page (null for the first page). A page shorter than `limit` is the last.
+     */
+    public List<EmployeeSummary> findPage(String afterEmployeeId, int limit, EmployeeSort sort) {
+        return employeeService.findPage(afterEmployeeId, limit, sort);
+    }
+
+    /**
+     * Load one employee with its shifts (e.g. when selected in a summary list).
+     */
+    public Optional<Employee> findEmployee(String employeeId) {
+        return employeeService.findById(employeeId);
+    }
+
     /**
      * Legacy GUI-friendly wrapper for addShiftToEmployee.
      */
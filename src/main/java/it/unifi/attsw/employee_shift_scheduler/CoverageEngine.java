@@ -0,0 +1,256 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes staffing coverage (head count per time slot) over many employees.
+ *
+ * Sweep line, run on a ForkJoinPool in three parallel phases:
+ * - collect: employees are split recursively and every shift (recurring occurrences
+ *   included) overlapping the range becomes two packed long events (slot, role, +1/-1);
+ *   an employee's shifts sharing a slot are merged first, so each person counts once;
+ * - sort: the events are ordered by slot with Arrays.parallelSort;
+ * - sweep: the slot range is partitioned into chunks that each run a local sweep from
+ *   zero, then the per-chunk net changes are prefix-summed and added back as carry-in.
+ *
+ * Counts live in plain int[] per role; memory is O(slots x roles), work is
+ * O(shifts log shifts) independent of the number of employees without shifts in range.
+ */
+public class CoverageEngine {
+
+    private static final int ROLE_BITS = 20;
+    private static final int MAX_ROLES = 1 << ROLE_BITS;
+    private static final int COLLECT_THRESHOLD = 512;
+    private static final int MIN_SLOTS_PER_CHUNK = 64;
+
+    private final ForkJoinPool pool;
+
+    public CoverageEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CoverageEngine(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * Head count per slot of [from, to), overall and per role. A person counts in a slot
+     * when one of their shifts overlaps any part of it. The last slot may be cut short by "to".
+     */
+    public StaffingCoverage compute(List<Employee> employees, Instant from, Instant to, Duration slot) {
+        Objects.requireNonNull(employees, "employees");
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+        Objects.requireNonNull(slot, "slot");
+        if (!to.isAfter(from)) throw new IllegalArgumentException("to must be after from");
+        if (slot.isZero() || slot.isNegative()) throw new IllegalArgumentException("slot must be positive");
+        long slotNanos = slot.toNanos();
+        long rangeNanos = Duration.between(from, to).toNanos();
+        long slots = (rangeNanos + slotNanos - 1) / slotNanos;
+        if (slots > Integer.MAX_VALUE) throw new IllegalArgumentException("too many slots");
+        int slotCount = (int) slots;
+
+        // role dictionary (insertion order = first seen)
+        Map<String, Integer> roleIndex = new LinkedHashMap<>();
+        int[] employeeRoles = new int[employees.size()];
+        for (int i = 0; i < employeeRoles.length; i++) {
+            employeeRoles[i] = roleIndex.computeIfAbsent(employees.get(i).getRole(), r -> roleIndex.size());
+        }
+        if (roleIndex.size() > MAX_ROLES) throw new IllegalArgumentException("too many roles");
+        int roleCount = roleIndex.size();
+
+        Grid grid = new Grid(from, to, slotNanos, slotCount);
+        long[] events = pool.invoke(new Collect(employees, employeeRoles, grid, 0, employees.size()));
+        Arrays.parallelSort(events);
+
+        int[][] counts = new int[roleCount][slotCount];
+        if (events.length > 0) {
+            sweep(events, counts, slotCount);
+        }
+
+        Map<String, int[]> byRole = new LinkedHashMap<>();
+        int[] total = new int[slotCount];
+        for (Map.Entry<String, Integer> e : roleIndex.entrySet()) {
+            int[] c = counts[e.getValue()];
+            byRole.put(e.getKey(), c);
+            for (int s = 0; s < slotCount; s++) total[s] += c[s];
+        }
+        return new StaffingCoverage(from, slot, total, byRole);
+    }
+
+    // --- sweep ---
+
+    private void sweep(long[] events, int[][] counts, int slotCount) {
+        int roles = counts.length;
+        int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, slotCount / MIN_SLOTS_PER_CHUNK));
+        int[] bounds = new int[chunks + 1];
+        for (int c = 0; c <= chunks; c++) {
+            bounds[c] = (int) ((long) slotCount * c / chunks);
+        }
+        int[][] net = new int[chunks][roles];
+
+        // pass 1: local sweeps starting from zero
+        List<RecursiveAction> local = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int chunk = c;
+            local.add(action(() -> localSweep(events, counts, bounds[chunk], bounds[chunk + 1], net[chunk])));
+        }
+        pool.invoke(action(() -> RecursiveAction.invokeAll(local)));
+
+        // merge: carry-in of each chunk is the prefix sum of the net changes before it
+        int[][] carry = new int[chunks][roles];
+        for (int c = 1; c < chunks; c++) {
+            for (int r = 0; r < roles; r++) carry[c][r] = carry[c - 1][r] + net[c - 1][r];
+        }
+
+        // pass 2: add carry-in
+        List<RecursiveAction> fix = new ArrayList<>(chunks);
+        for (int c = 1; c < chunks; c++) {
+            int chunk = c;
+            fix.add(action(() -> {
+                for (int r = 0; r < roles; r++) {
+                    int add = carry[chunk][r];
+                    if (add == 0) continue;
+                    int[] row = counts[r];
+                    for (int s = bounds[chunk]; s < bounds[chunk + 1]; s++) row[s] += add;
+                }
+            }));
+        }
+        pool.invoke(action(() -> RecursiveAction.invokeAll(fix)));
+    }
+
+    private static void localSweep(long[] events, int[][] counts, int fromSlot, int toSlot, int[] running) {
+        int i = lowerBound(events, (long) fromSlot << (ROLE_BITS + 1));
+        for (int s = fromSlot; s < toSlot; s++) {
+            long next = (long) (s + 1) << (ROLE_BITS + 1);
+            for (; i < events.length && events[i] < next; i++) {
+                long ev = events[i];
+                int role = (int) ((ev >>> 1) & (MAX_ROLES - 1));
+                running[role] += (ev & 1) == 0 ? 1 : -1;
+            }
+            for (int r = 0; r < running.length; r++) counts[r][s] = running[r];
+        }
+    }
+
+    private static int lowerBound(long[] a, long key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static RecursiveAction action(Runnable body) {
+        return new RecursiveAction() {
+            @Override protected void compute() { body.run(); }
+        };
+    }
+
+    // --- collect ---
+
+    /** Maps instants to slot indexes of the requested range. */
+    private static final class Grid {
+        final Instant from;
+        final Instant to;
+        final long slotNanos;
+        final int slots;
+
+        Grid(Instant from, Instant to, long slotNanos, int slots) {
+            this.from = from;
+            this.to = to;
+            this.slotNanos = slotNanos;
+            this.slots = slots;
+        }
+
+        long nanosFromStart(Instant t) {
+            return Duration.between(from, t).toNanos();
+        }
+    }
+
+    /** Packed event: slot in the high bits, then role, then 0 = start / 1 = end. */
+    private static long event(int slot, int role, boolean end) {
+        return ((long) slot << (ROLE_BITS + 1)) | ((long) role << 1) | (end ? 1 : 0);
+    }
+
+    private static final class Collect extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Employee> employees;
+        private final int[] roles;
+        private final Grid grid;
+        private final int lo;
+        private final int hi;
+
+        Collect(List<Employee> employees, int[] roles, Grid grid, int lo, int hi) {
+            this.employees = employees;
+            this.roles = roles;
+            this.grid = grid;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hi - lo > COLLECT_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                Collect left = new Collect(employees, roles, grid, lo, mid);
+                left.fork();
+                long[] right = new Collect(employees, roles, grid, mid, hi).compute();
+                long[] l = left.join();
+                long[] out = Arrays.copyOf(l, l.length + right.length);
+                System.arraycopy(right, 0, out, l.length, right.length);
+                return out;
+            }
+            long[] out = new long[16];
+            int n = 0;
+            for (int i = lo; i < hi; i++) {
+                // shifts come ordered by start; slot runs that share or touch a slot are merged,
+                // so a person with back-to-back shifts is counted once per slot
+                int runFirst = -1;
+                int runLast = -1;
+                for (Shift s : employees.get(i).shiftsBetween(grid.from, grid.to)) {
+                    int first = (int) Math.max(0, Math.floorDiv(grid.nanosFromStart(s.getStart()), grid.slotNanos));
+                    long endNanos = grid.nanosFromStart(s.getEnd());
+                    int last = (int) Math.min(grid.slots, (endNanos + grid.slotNanos - 1) / grid.slotNanos);
+                    if (runFirst >= 0 && first <= runLast) {
+                        runLast = Math.max(runLast, last);
+                        continue;
+                    }
+                    if (runFirst >= 0) {
+                        out = ensureRoom(out, n);
+                        n = emit(out, n, runFirst, runLast, roles[i]);
+                    }
+                    runFirst = first;
+                    runLast = last;
+                }
+                if (runFirst >= 0) {
+                    out = ensureRoom(out, n);
+                    n = emit(out, n, runFirst, runLast, roles[i]);
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        private static long[] ensureRoom(long[] out, int n) {
+            return n + 2 > out.length ? Arrays.copyOf(out, out.length * 2) : out;
+        }
+
+        /** Writes the start/end events of the slot run [first, last) at n; returns the new n. */
+        private int emit(long[] out, int n, int first, int last, int role) {
+            out[n++] = event(first, role, false);
+            if (last < grid.slots) out[n++] = event(last, role, true);
+            return n;
+        }
+    }
+}
@@ -1,48 +1,108 @@
 package it.unifi.attsw.employee_shift_scheduler;
 
-import java.time.Duration;
-import java.util.ArrayList;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Minimal Employee with shift management.
  *
- * - Keeps an internal mutable list of scheduledShifts (final reference).
- * - Exposes addShift/removeShiftById and a defensive getter.
+ * - Holds its shifts in an immutable ShiftSchedule snapshot behind an atomically swapped
+ *   reference (final). The snapshot carries a persistent start-ordered interval index
+ *   (O(log n) overlap checks and inserts), a persistent id -> shift index, and running
+ *   per-ISO-week minute totals (weeks taken in weekZone).
+ * - Readers get the current snapshot in O(1): getScheduledShifts() is a true immutable
+ *   view that never changes underneath the caller (no ConcurrentModificationException).
+ * - Writers build a new snapshot (structural sharing) and publish it with compare-and-set,
+ *   retrying on contention; no locks are taken.
+ * - Exposes addShift/addShifts/removeShiftById and a read-only, start-ordered getter.
+ * - Recurring shift templates (addRecurringShift) are stored once and expanded lazily:
+ *   getScheduledShifts() lists concrete shifts only, while shiftsBetween, findShift,
+ *   weekly totals and the overlap/limit rules also see the recurring occurrences.
  * - Provides setScheduledShifts(...) to replace internal contents (keeps instance).
+ * - Repositories may hydrate the schedule lazily (package-private loader constructor): it
+ *   is built on first use of any shift method, so callers that only read name, id and role
+ *   never decode shifts.
  */
 public class Employee {
 
     private final String name;
     private final String employeeId;
     private final String role;
-    private final List<Shift> scheduledShifts = new ArrayList<>();
+    private final ZoneId weekZone;
+    private final AtomicReference<ShiftSchedule> schedule;   // null until a lazy loader has run
+    private volatile Supplier<ShiftSchedule> loader;
+    private volatile long version;
 
     // Set weekly limit to 40 hours so integration/unit tests agree.
     private static final long WEEKLY_LIMIT_HOURS = 40;
+    static final long WEEKLY_LIMIT_MINUTES = WEEKLY_LIMIT_HOURS * 60;
 
     /**
      * Main constructor used in the application.
      */
     public Employee(String name, String employeeId, String role) {
-        this.name = Objects.requireNonNull(name, "name");
-        this.employeeId = Objects.requireNonNull(employeeId, "employeeId");
-        this.role = role == null ? "" : role;
+        this(name, employeeId, role, null, ZoneId.systemDefault());
     }
 
     /**
      * Convenience constructor that accepts initial shifts.
-     * The provided list is copied into the internal list (defensive).
+     * The provided shifts are copied into the internal index (defensive).
      * Use this from repositories when you want to hydrate an Employee with existing shifts.
      */
     public Employee(String name, String employeeId, String role, List<Shift> initialShifts) {
-        this(name, employeeId, role);
-        if (initialShifts != null && !initialShifts.isEmpty()) {
-            this.scheduledShifts.addAll(initialShifts);
-        }
+        this(name, employeeId, role, initialShifts, ZoneId.systemDefault());
+    }
+
+    /**
+     * Full constructor: weekZone is the zone in which ISO weeks are cut for the weekly limit
+     * (defaults to the system zone, like the LocalDateTime Shift constructors).
+     */
+    public Employee(String name, String employeeId, String role, List<Shift> initialShifts, ZoneId weekZone) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.employeeId = Objects.requireNonNull(employeeId, "employeeId");
+        this.role = role == null ? "" : role;
+        this.weekZone = Objects.requireNonNull(weekZone, "weekZone");
+        this.schedule = new AtomicReference<>(ShiftSchedule.of(weekZone, initialShifts));
+    }
+
+    /**
+     * Lazily hydrated employee: `loader` builds the schedule (in `weekZone`) on first use.
+     * It must return the same stored state every time, with no pending changes.
+     */
+    Employee(String name, String employeeId, String role, ZoneId weekZone, Supplier<ShiftSchedule> loader) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.employeeId = Objects.requireNonNull(employeeId, "employeeId");
+        this.role = role == null ? "" : role;
+        this.weekZone = Objects.requireNonNull(weekZone, "weekZone");
+        this.schedule = new AtomicReference<>();
+        this.loader = Objects.requireNonNull(loader, "loader");
+    }
+
+    /**
+     * Copy constructor: the copy starts from the same immutable snapshot, so it costs O(1);
+     * later changes to either instance are not seen by the other. A copy of an employee
+     * that is not hydrated yet shares its loader, which then builds the stored schedule
+     * once for all of them (e.g. a cached employee and the copies handed out by the cache).
+     */
+    public Employee(Employee source) {
+        this.name = source.name;
+        this.employeeId = source.employeeId;
+        this.role = source.role;
+        this.weekZone = source.weekZone;
+        // loader first: it is cleared only after the schedule is published
+        Supplier<ShiftSchedule> sourceLoader = source.sharedLoader();
+        ShiftSchedule current = source.schedule.get();
+        this.schedule = new AtomicReference<>(current);
+        this.loader = current == null ? sourceLoader : null;
+        this.version = source.version;
     }
 
     // --- Accessors ---
@@ -50,59 +110,218 @@ public class Employee {
     public String getName() { return name; }
     public String getEmployeeId() { return employeeId; }
     public String getRole() { return role; }
+    public ZoneId getWeekZone() { return weekZone; }
+
+    /**
+     * Version of the stored employee this instance was read from (0 if never stored).
+     * Repositories bump it on every write and set the new one on the saved instance, so an
+     * equal version means unchanged (see EmployeeRepository.findVersions).
+     */
+    public long getVersion() { return version; }
+
+    void setVersion(long version) { this.version = version; }
 
     /**
-     * Returns an unmodifiable snapshot view of the scheduled shifts.
+     * Returns an immutable snapshot of the scheduled shifts, ordered by start. O(1).
      */
     public List<Shift> getScheduledShifts() {
-        return Collections.unmodifiableList(scheduledShifts);
+        return current().shifts();
+    }
+
+    /** Recurring shift templates, ordered by id. */
+    public List<RecurringShift> getRecurringShifts() {
+        return Collections.unmodifiableList(current().recurring());
+    }
+
+    /**
+     * Shifts (concrete and recurring occurrences) overlapping the window [from, to),
+     * ordered by start. Only the matching part of the index is visited (O(log n + k)),
+     * so callers can fetch a visible week without materializing the whole history.
+     */
+    public List<Shift> shiftsBetween(Instant from, Instant to) {
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+        if (to.isBefore(from)) throw new IllegalArgumentException("to must not be before from");
+        return Collections.unmodifiableList(current().findOverlapping(from, to));
+    }
+
+    /**
+     * Look up a scheduled shift or recurring occurrence ("templateId@date") by id.
+     */
+    public Optional<Shift> findShift(String shiftId) {
+        if (shiftId == null) return Optional.empty();
+        return Optional.ofNullable(current().findById(shiftId));
+    }
+
+    /**
+     * Scheduled hours in the given ISO week (minute precision). No rescanning.
+     */
+    public double weeklyHours(YearWeek week) {
+        return weeklyMinutes(week) / 60.0;
+    }
+
+    /**
+     * Scheduled minutes in the given ISO week, recurring occurrences included.
+     */
+    public long weeklyMinutes(YearWeek week) {
+        return current().weeklyMinutes(week);
+    }
+
+    /**
+     * Occupancy of the given UTC grid week (OccupancyBitmap.weekOf) as 11 words of 15-minute
+     * slots, recurring occurrences included. Returns a copy; maintained incrementally.
+     */
+    public long[] occupancyWords(long week) {
+        return current().occupancyWords(week);
     }
 
     // --- Mutators / domain behaviour ---
 
     /**
-     * Replace the internal scheduledShifts content with the provided list.
-     * Defensive copy semantics: internal list instance is retained.
+     * Replace the scheduled shifts with the provided list (no domain validation).
+     * Recurring templates are kept.
      */
     public void setScheduledShifts(List<Shift> shifts) {
-        this.scheduledShifts.clear();
-        if (shifts != null && !shifts.isEmpty()) {
-            this.scheduledShifts.addAll(shifts);
-        }
+        ShiftSchedule concrete = ShiftSchedule.of(weekZone, shifts);
+        update(current -> concrete.withRecurringUnchecked(current.recurring()));
+    }
+
+    /**
+     * Replace the recurring templates with the provided list (no domain validation;
+     * used when hydrating from storage).
+     */
+    public void setRecurringShifts(List<RecurringShift> templates) {
+        update(current -> current.withRecurringUnchecked(templates));
     }
 
     /**
-     * Add a shift after enforcing domain rules: no overlaps and weekly-hour limit.
+     * Add a shift after enforcing domain rules: no overlaps and weekly-hour limit
+     * (checked per ISO week the shift falls into).
      * Throws IllegalArgumentException on violation.
      */
     public void addShift(Shift shift) {
         Objects.requireNonNull(shift, "shift");
-        // overlap check
-        for (Shift s : scheduledShifts) {
-            if (s.overlaps(shift)) {
-                throw new IllegalArgumentException("Shift overlaps existing shift: " + s.getId());
-            }
-        }
-        // weekly hours check (sum of hours)
-        long currentHours = scheduledShifts.stream().mapToLong(s -> s.duration().toHours()).sum();
-        long toAdd = shift.duration().toHours();
-        if (currentHours + toAdd > WEEKLY_LIMIT_HOURS) {
-            throw new IllegalArgumentException("Exceeds weekly hour limit");
-        }
-        scheduledShifts.add(shift);
+        update(current -> current.withShift(shift));
+    }
+
+    /**
+     * Add a batch of shifts with the same rules as addShift, all-or-nothing:
+     * the batch is sorted once and swept for internal overlaps, each shift is checked
+     * against the interval index, and weekly totals are checked per week for the whole batch.
+     * Nothing is added if any shift violates a rule (IllegalArgumentException).
+     */
+    public void addShifts(Collection<Shift> shifts) {
+        Objects.requireNonNull(shifts, "shifts");
+        update(current -> current.withShifts(shifts));
     }
 
     /**
-     * Remove the first shift that matches the provided id.
+     * Remove the shift with the provided id (no-op if there is none).
      */
     public void removeShiftById(String shiftId) {
         if (shiftId == null) return;
-        Iterator<Shift> it = scheduledShifts.iterator();
-        while (it.hasNext()) {
-            if (shiftId.equals(it.next().getId())) {
-                it.remove();
-                return;
+        update(current -> current.withoutShift(shiftId));
+    }
+
+    /**
+     * Add a recurring template after checking it against concrete shifts, the other
+     * templates and the weekly limit, without expanding the whole series.
+     * Throws IllegalArgumentException on violation.
+     */
+    public void addRecurringShift(RecurringShift template) {
+        Objects.requireNonNull(template, "template");
+        update(current -> current.withRecurring(template));
+    }
+
+    /**
+     * Remove the recurring template with the provided id (no-op if there is none).
+     */
+    public void removeRecurringShift(String templateId) {
+        if (templateId == null) return;
+        update(current -> current.withoutRecurring(templateId));
+    }
+
+    /**
+     * Shift changes not yet persisted (see ShiftChanges). New employees and employees whose
+     * shifts were replaced wholesale report a structural change.
+     */
+    public ShiftChanges pendingChanges() {
+        // a lazy loader yields the persisted state: nothing pending until it is touched
+        return isHydrated() || loader == null ? current().changes() : ShiftChanges.NONE;
+    }
+
+    /**
+     * Called by repositories once `persisted` (obtained from pendingChanges()) has been
+     * written; changes made since then stay pending.
+     */
+    public void markPersisted(ShiftChanges persisted) {
+        Objects.requireNonNull(persisted, "persisted");
+        if (persisted == ShiftChanges.NONE) return;
+        update(current -> current.withPersisted(persisted));
+    }
+
+    /** Current immutable snapshot (for engines that plan against it without mutating). */
+    ShiftSchedule snapshot() {
+        return current();
+    }
+
+    /** Whether the schedule has been built (always true unless lazily hydrated). */
+    boolean isHydrated() {
+        return schedule.get() != null;
+    }
+
+    /** This employee's loader, made shareable (see SharedLoader); null once hydrated. */
+    private Supplier<ShiftSchedule> sharedLoader() {
+        Supplier<ShiftSchedule> l = loader;
+        if (l == null || l instanceof SharedLoader) return l;
+        SharedLoader shared = new SharedLoader(l);
+        loader = shared;   // if current() cleared it meanwhile, the schedule is set and it is never used
+        return shared;
+    }
+
+    /** Runs the wrapped loader once and hands the same (immutable) schedule to every caller. */
+    private static final class SharedLoader implements Supplier<ShiftSchedule> {
+        private final Supplier<ShiftSchedule> loader;
+        private volatile ShiftSchedule loaded;
+
+        SharedLoader(Supplier<ShiftSchedule> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public ShiftSchedule get() {
+            ShiftSchedule s = loaded;
+            if (s == null) {
+                synchronized (this) {
+                    s = loaded;
+                    if (s == null) loaded = s = loader.get();
+                }
             }
+            return s;
+        }
+    }
+
+    private ShiftSchedule current() {
+        ShiftSchedule s = schedule.get();
+        if (s != null) return s;
+        Supplier<ShiftSchedule> l = loader;
+        if (l != null) {
+            schedule.compareAndSet(null, l.get());
+            loader = null;
+        }
+        return schedule.get();
+    }
+
+    /**
+     * Lock-free publish: compute the next snapshot from the current one and swap it in,
+     * recomputing if another writer got there first. Validation errors propagate and
+     * leave the published snapshot untouched.
+     */
+    private void update(UnaryOperator<ShiftSchedule> change) {
+        while (true) {
+            ShiftSchedule current = current();
+            ShiftSchedule next = change.apply(current);
+            if (next == current || schedule.compareAndSet(current, next)) return;
         }
     }
 
@@ -126,7 +345,7 @@ public class Employee {
                 "name='" + name + '\'' +
                 ", employeeId='" + employeeId + '\'' +
                 ", role='" + role + '\'' +
-                ", scheduledShifts=" + scheduledShifts.size() +
+                ", scheduledShifts=" + (isHydrated() ? String.valueOf(current().size()) : "not loaded") +
                 '}';
     }
 }
@@ -0,0 +1,279 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BSON codec for a whole employee document (see MongoEmployeeRepository for the layout).
+ *
+ * - Streams fields straight between BsonReader/BsonWriter and Employee: no Document,
+ *   map entries or per-shift lists are allocated on the way.
+ * - Unknown fields (_id, schemaVersion, fields added by other tools) are skipped on read.
+ * - version is read (a number, or the BSON timestamp of older documents) but never written:
+ *   the repository sets it.
+ * - Shifts ShiftCodec cannot read, and later shifts repeating an id, are skipped (the first
+ *   occurrence is kept) and counted in skippedShiftCount(), so one bad entry does not fail
+ *   findAll; a later structural save no longer writes them. Nothing is logged per document.
+ * - Decoded employees have no pending changes, so a later save only sends what changes.
+ * - decodeLazily wraps a RawBsonDocument and leaves the shifts encoded until first use.
+ */
+public final class EmployeeCodec implements Codec<Employee> {
+
+    private final Codec<Shift> shiftCodec;
+    private final AtomicLong skippedShifts = new AtomicLong();
+
+    public EmployeeCodec() {
+        this(new ShiftCodec());
+    }
+
+    public EmployeeCodec(Codec<Shift> shiftCodec) {
+        this.shiftCodec = Objects.requireNonNull(shiftCodec, "shiftCodec");
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Employee e, EncoderContext context) {
+        writer.writeStartDocument();
+        writeString(writer, "employeeId", e.getEmployeeId());
+        writeString(writer, "name", e.getName());
+        writeString(writer, "role", e.getRole());
+        writer.writeInt32("schemaVersion", MongoEmployeeRepository.SCHEMA_VERSION);
+
+        writer.writeStartArray("shifts");
+        for (Shift s : e.getScheduledShifts()) {
+            context.encodeWithChildContext(shiftCodec, writer, s);
+        }
+        writer.writeEndArray();
+
+        writer.writeStartArray("recurring");
+        for (RecurringShift r : e.getRecurringShifts()) {
+            encodeRecurring(writer, r);
+        }
+        writer.writeEndArray();
+        writer.writeEndDocument();
+    }
+
+    private static void encodeRecurring(BsonWriter writer, RecurringShift r) {
+        writer.writeStartDocument();
+        writer.writeString("id", r.getId());
+        writer.writeStartArray("days");
+        for (DayOfWeek day : r.getDays()) writer.writeString(day.name());
+        writer.writeEndArray();
+        writer.writeString("startTime", r.getStartTime().toString());
+        writer.writeString("duration", r.getDuration().toString());
+        writer.writeString("zone", r.getZone().getId());
+        writer.writeString("startDate", r.getStartDate().toString());
+        writer.writeInt32("interval", r.getIntervalWeeks());
+        writer.writeInt32("count", r.getCount());
+        writeString(writer, "notes", r.getNotes());
+        if (r.getUntil() != null) writer.writeString("until", r.getUntil().toString());
+        writer.writeEndDocument();
+    }
+
+    private static void writeString(BsonWriter writer, String field, String value) {
+        if (value == null) {
+            writer.writeNull(field);
+        } else {
+            writer.writeString(field, value);
+        }
+    }
+
+    /** Stored shifts skipped so far (unreadable times or a repeated id), lazy decodes included. */
+    public long skippedShiftCount() {
+        return skippedShifts.get();
+    }
+
+    @Override
+    public Employee decode(BsonReader reader, DecoderContext context) {
+        String employeeId = null;
+        String name = null;
+        String role = null;
+        long version = 0;
+        List<Shift> shifts = new ArrayList<>();
+        List<RecurringShift> recurring = new ArrayList<>();
+        Set<String> shiftIds = new HashSet<>();
+        int unreadable = 0;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "employeeId": employeeId = readString(reader); break;
+                case "name": name = readString(reader); break;
+                case "role": role = readString(reader); break;
+                case "version": version = readVersion(reader); break;
+                case "shifts":
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        Shift shift = context.decodeWithChildContext(shiftCodec, reader);
+                        if (shift != null && shiftIds.add(shift.getId())) shifts.add(shift);
+                        else unreadable++;
+                    }
+                    reader.readEndArray();
+                    break;
+                case "recurring":
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        recurring.add(decodeRecurring(reader));
+                    }
+                    reader.readEndArray();
+                    break;
+                default: reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        if (unreadable > 0) skippedShifts.addAndGet(unreadable);
+
+        Employee e = new Employee(name, employeeId, role, shifts);
+        if (!recurring.isEmpty()) e.setRecurringShifts(recurring);
+        e.markPersisted(e.pendingChanges());
+        e.setVersion(version);
+        return e;
+    }
+
+    /**
+     * Append the shifts of one stored employee (the document may be projected to employeeId
+     * and shifts) to the store without building an Employee or its schedule. Unreadable and
+     * repeated shifts are skipped and counted as by decode. Returns the employee ordinal.
+     */
+    public int decodeShiftsInto(BsonReader reader, ShiftStore store) {
+        String employeeId = null;
+        List<Shift> shifts = new ArrayList<>();
+        Set<String> shiftIds = new HashSet<>();
+        int unreadable = 0;
+        DecoderContext context = DecoderContext.builder().build();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "employeeId": employeeId = readString(reader); break;
+                case "shifts":
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        Shift shift = context.decodeWithChildContext(shiftCodec, reader);
+                        if (shift != null && shiftIds.add(shift.getId())) shifts.add(shift);
+                        else unreadable++;
+                    }
+                    reader.readEndArray();
+                    break;
+                default: reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        if (unreadable > 0) skippedShifts.addAndGet(unreadable);
+        return store.addAll(employeeId, shifts);
+    }
+
+    /**
+     * Employee over the raw document bytes: employeeId, name and role are read straight from
+     * the bytes (the arrays are skipped by length, not decoded) and the shifts and templates
+     * are decoded on first use.
+     */
+    public Employee decodeLazily(RawBsonDocument raw) {
+        Employee e = new Employee(rawString(raw, "name"), rawString(raw, "employeeId"), rawString(raw, "role"),
+                ZoneId.systemDefault(), () -> {
+                    try (BsonReader reader = raw.asBsonReader()) {
+                        return decode(reader, DecoderContext.builder().build()).snapshot();
+                    }
+                });
+        e.setVersion(version(raw.get("version")));
+        return e;
+    }
+
+    /** Stored version: the BSON timestamp's 64-bit value, a plain number, or 0 when missing. */
+    static long version(BsonValue value) {
+        if (value == null) return 0;
+        if (value.isTimestamp()) return value.asTimestamp().getValue();
+        return value.isNumber() ? value.asNumber().longValue() : 0;
+    }
+
+    private static long readVersion(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case TIMESTAMP: return reader.readTimestamp().getValue();
+            case INT64: return reader.readInt64();
+            case INT32: return reader.readInt32();
+            default:
+                reader.skipValue();
+                return 0;
+        }
+    }
+
+    static String rawString(RawBsonDocument raw, String field) {
+        BsonValue value = raw.get(field);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    static RecurringShift decodeRecurring(BsonReader reader) {
+        String id = null;
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        String startTime = null;
+        String duration = null;
+        String zone = null;
+        String startDate = null;
+        int interval = 1;
+        int count = 0;
+        String notes = null;
+        String until = null;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "id": id = readString(reader); break;
+                case "days":
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        days.add(DayOfWeek.valueOf(reader.readString()));
+                    }
+                    reader.readEndArray();
+                    break;
+                case "startTime": startTime = readString(reader); break;
+                case "duration": duration = readString(reader); break;
+                case "zone": zone = readString(reader); break;
+                case "startDate": startDate = readString(reader); break;
+                case "interval": interval = reader.readInt32(); break;
+                case "count": count = reader.readInt32(); break;
+                case "notes": notes = readString(reader); break;
+                case "until": until = readString(reader); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return RecurringShift.builder(id, days, LocalTime.parse(startTime), Duration.parse(duration),
+                        LocalDate.parse(startDate))
+                .zone(ZoneId.of(zone))
+                .everyWeeks(interval)
+                .count(count)
+                .until(until == null ? null : LocalDate.parse(until))
+                .notes(notes)
+                .build();
+    }
+
+    private static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) return reader.readString();
+        reader.skipValue();
+        return null;
+    }
+
+    @Override
+    public Class<Employee> getEncoderClass() {
+        return Employee.class;
+    }
+}
@@ -0,0 +1,39 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import it.unifi.attsw.employee_shift_scheduler.repository.EmployeeRepository;
+
+import java.time.Duration;
+
+/**
+ * Assembles the repository the application runs on (see App), so the wiring is kept and
+ * tested with the rest of the code.
+ *
+ * - Lazy loading: the employee list only shows names and ids, so shifts are decoded on
+ *   first use (MongoEmployeeRepository.setLazyLoading).
+ * - Caching: up to CACHE_SIZE employees stay in memory (CachingEmployeeRepository). Other
+ *   instances may write to the same collection, so entries expire after CACHE_TTL, which
+ *   bounds how long such changes go unnoticed; expired entries are revalidated by version
+ *   and reloaded only if they changed, so the short TTL stays cheap.
+ * - Schema-1 documents (string shift times) are rewritten on a daemon thread, in batches
+ *   of MIGRATION_BATCH_SIZE (see ShiftDateMigration).
+ */
+public final class EmployeeRepositories {
+
+    static final int CACHE_SIZE = 10_000;
+    static final Duration CACHE_TTL = Duration.ofSeconds(5);
+    static final int MIGRATION_BATCH_SIZE = 500;
+
+    private EmployeeRepositories() {
+    }
+
+    /** Repository for the application over the given Mongo repository. */
+    public static EmployeeRepository forApplication(MongoEmployeeRepository mongo) {
+        mongo.setLazyLoading(true);
+        Thread migration = new Thread(mongo.dateMigration(MIGRATION_BATCH_SIZE), "shift-date-migration");
+        migration.setDaemon(true);
+        migration.start();
+        CachingEmployeeRepository cache = new CachingEmployeeRepository(mongo, CACHE_SIZE, CACHE_TTL);
+        cache.setRevalidating(true);
+        return cache;
+    }
+}
@@ -2,31 +2,53 @@ package it.unifi.attsw.employee_shift_scheduler;
 
 import it.unifi.attsw.employee_shift_scheduler.repository.EmployeeRepository;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Service layer for employees and shifts.
  *
- * - addShiftToEmployee will create a new Employee if none exists for the given id.
- * - Uses Employee API (addShift/removeShiftById) so domain rules are enforced.
+ * - addShiftToEmployee/addShiftsToEmployee will create a new Employee if none exists for the given id.
+ * - Uses Employee API (addShift/addShifts/removeShiftById) so domain rules are enforced.
  *
  * Note: domain validation failures are wrapped into RuntimeException so integration
  * tests and controllers receive a runtime error as expected by the test-suite.
  */
 public class EmployeeService {
 
+    /** Read-check-save rounds of addShiftToEmployee before giving up on a busy employee. */
+    static final int MAX_SAVE_ATTEMPTS = 3;
+
     private final EmployeeRepository repo;
+    private final CoverageEngine coverageEngine = new CoverageEngine();
+    private final AssignmentSolver assignmentSolver;
 
     public EmployeeService(EmployeeRepository repo) {
+        this(repo, new AssignmentSolver());
+    }
+
+    public EmployeeService(EmployeeRepository repo, AssignmentSolver assignmentSolver) {
         this.repo = repo;
+        this.assignmentSolver = assignmentSolver;
     }
 
     public Employee save(Employee e) {
         return repo.save(e);
     }
 
+    public List<EmployeeSummary> findAllSummaries() {
+        return repo.findAllSummaries();
+    }
+
+    public List<EmployeeSummary> findPage(String afterEmployeeId, int limit, EmployeeSort sort) {
+        return repo.findPage(afterEmployeeId, limit, sort);
+    }
+
     public Optional<Employee> findById(String id) {
         return repo.findById(id);
     }
@@ -35,6 +57,34 @@ public class EmployeeService {
         return repo.findAll();
     }
 
+    /**
+     * Shifts of the employee overlapping [from, to), ordered by start
+     * (empty if the employee does not exist).
+     */
+    public List<Shift> shiftsBetween(String employeeId, Instant from, Instant to) {
+        if (employeeId == null) return Collections.emptyList();
+        return repo.findById(employeeId)
+                .map(e -> e.shiftsBetween(from, to))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Staffing coverage of all employees over [from, to) in slots of the given length
+     * (e.g. 15 minutes), overall and per role. Only employees with shifts in the range are
+     * loaded, so roles with nobody scheduled there are left out.
+     */
+    public StaffingCoverage staffingCoverage(Instant from, Instant to, Duration slot) {
+        return coverageEngine.compute(repo.findEmployeesWithShiftsBetween(from, to), from, to, slot);
+    }
+
+    /**
+     * Look up a single shift of an employee by id (empty if employee or shift is unknown).
+     */
+    public Optional<Shift> findShift(String employeeId, String shiftId) {
+        if (employeeId == null || shiftId == null) return Optional.empty();
+        return repo.findById(employeeId).flatMap(e -> e.findShift(shiftId));
+    }
+
     public Optional<Employee> deleteById(String id) {
         Optional<Employee> removed = repo.findById(id);
         if (removed.isPresent()) {
@@ -47,6 +97,11 @@ public class EmployeeService {
      * Add a shift to the employee. If the employee does not exist, create a new Employee
      * with the given id and persist it (with the shift added).
      *
+     * First tries the repository's atomic addShiftIfNoConflict (one round trip, no lost
+     * updates); when that writes nothing, the read-modify-write below decides and reports why.
+     * It saves with saveIfUnchanged, so a concurrent write to the employee is not overwritten:
+     * the employee is read and checked again, up to MAX_SAVE_ATTEMPTS times.
+     *
      * IMPORTANT: any domain validation failure (e.g. overlap or weekly limit)
      * is converted to RuntimeException so test callers and controllers observe it.
      */
@@ -61,32 +116,129 @@ public class EmployeeService {
             throw new IllegalArgumentException("shift required");
         }
 
-        Optional<Employee> maybe = repo.findById(employeeId);
+        Optional<Employee> added = repo.addShiftIfNoConflict(employeeId, shift);
+        if (added.isPresent()) {
+            return added.get();
+        }
 
-        Employee toSave;
-        if (maybe.isPresent()) {
-            // Existing employee: use Employee domain API (addShift) so domain rules are enforced
-            Employee existing = maybe.get();
-            try {
-                existing.addShift(shift); // may throw IllegalArgumentException on domain violation
-            } catch (Throwable t) {
-                // Wrap domain validation failure to satisfy integration tests' expectation
-                throw new RuntimeException("Cannot add shift to existing employee: " + t.getMessage(), t);
+        for (int attempt = 1; attempt <= MAX_SAVE_ATTEMPTS; attempt++) {
+            Optional<Employee> maybe = repo.findById(employeeId);
+
+            Employee toSave;
+            if (maybe.isPresent()) {
+                // Existing employee: use Employee domain API (addShift) so domain rules are enforced
+                Employee existing = maybe.get();
+                try {
+                    existing.addShift(shift); // may throw IllegalArgumentException on domain violation
+                } catch (Throwable t) {
+                    // Wrap domain validation failure to satisfy integration tests' expectation
+                    throw new RuntimeException("Cannot add shift to existing employee: " + t.getMessage(), t);
+                }
+                toSave = existing;
+            } else {
+                // Employee not present: create minimal Employee and use domain API to validate shift
+                toSave = new Employee(employeeId, employeeId, "", new ArrayList<>());
+                try {
+                    toSave.addShift(shift);
+                } catch (Throwable t) {
+                    throw new RuntimeException("Cannot add shift to new employee: " + t.getMessage(), t);
+                }
             }
-            toSave = existing;
-        } else {
-            // Employee not present: create minimal Employee and use domain API to validate shift
-            toSave = new Employee(employeeId, employeeId, "", new ArrayList<>());
+
+            // Persist and return only if addShift succeeded and nobody wrote the employee meanwhile
+            if (repo.saveIfUnchanged(toSave)) {
+                return toSave;
+            }
+        }
+        throw new RuntimeException("Cannot add shift: employee " + employeeId + " keeps being modified concurrently");
+    }
+
+    /**
+     * Add a batch of shifts to the employee in one go (e.g. a roster week): the batch is
+     * validated all-or-nothing by Employee.addShifts and persisted with a single save.
+     * Creates the employee if it does not exist, like addShiftToEmployee.
+     * Domain validation failures are wrapped into RuntimeException.
+     */
+    public Employee addShiftsToEmployee(String employeeId, Collection<Shift> shifts) {
+        if (employeeId == null || employeeId.isBlank()) {
+            throw new IllegalArgumentException("employeeId required");
+        }
+        if (shifts == null) {
+            throw new IllegalArgumentException("shifts required");
+        }
+
+        Employee target = repo.findById(employeeId)
+                .orElseGet(() -> new Employee(employeeId, employeeId, "", new ArrayList<>()));
+        try {
+            target.addShifts(shifts);
+        } catch (Throwable t) {
+            throw new RuntimeException("Cannot add shifts to employee: " + t.getMessage(), t);
+        }
+        return repo.save(target);
+    }
+
+    /**
+     * Add a recurring shift template to the employee (created if absent), validated by
+     * Employee.addRecurringShift and persisted once. Domain failures are wrapped into
+     * RuntimeException.
+     */
+    public Employee addRecurringShiftToEmployee(String employeeId, RecurringShift template) {
+        if (employeeId == null || employeeId.isBlank()) {
+            throw new IllegalArgumentException("employeeId required");
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("template required");
+        }
+
+        Employee target = repo.findById(employeeId)
+                .orElseGet(() -> new Employee(employeeId, employeeId, "", new ArrayList<>()));
+        try {
+            target.addRecurringShift(template);
+        } catch (Throwable t) {
+            throw new RuntimeException("Cannot add recurring shift to employee: " + t.getMessage(), t);
+        }
+        return repo.save(target);
+    }
+
+    /**
+     * Remove a recurring template from the specified employee (throws if employee not found).
+     */
+    public Employee removeRecurringShiftFromEmployee(String employeeId, String templateId) {
+        Employee existing = repo.findById(employeeId)
+                .orElseThrow(() -> new IllegalArgumentException("Employee not found: " + employeeId));
+        existing.removeRecurringShift(templateId);
+        return repo.save(existing);
+    }
+
+    /**
+     * Assign open shifts automatically to the employees with the given role (all
+     * employees if role is null) and commit the result in one batch: every affected
+     * employee is updated through Employee.addShifts first, and only if all of them accept
+     * their shifts are they saved. Shifts no candidate could take are reported in the result.
+     */
+    public AssignmentResult autoAssign(Collection<Shift> openShifts, String role) {
+        if (openShifts == null) {
+            throw new IllegalArgumentException("openShifts required");
+        }
+        List<Employee> candidates = new ArrayList<>();
+        for (Employee e : repo.findAll()) {
+            if (role == null || role.equals(e.getRole())) candidates.add(e);
+        }
+        AssignmentResult result = assignmentSolver.solve(openShifts, candidates);
+
+        List<Employee> changed = new ArrayList<>();
+        for (Employee e : candidates) {
+            List<Shift> assigned = result.getAssignments().get(e.getEmployeeId());
+            if (assigned == null) continue;
             try {
-                toSave.addShift(shift);
+                e.addShifts(assigned);
             } catch (Throwable t) {
-                throw new RuntimeException("Cannot add shift to new employee: " + t.getMessage(), t);
+                throw new RuntimeException("Cannot commit assignment for employee " + e.getEmployeeId() + ": " + t.getMessage(), t);
             }
+            changed.add(e);
         }
-
-        // Persist and return only if addShift succeeded
-        Employee saved = repo.save(toSave);
-        return saved;
+        repo.saveAll(changed);
+        return result;
     }
 
     /**
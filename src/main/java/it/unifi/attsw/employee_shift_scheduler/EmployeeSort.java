@@ -0,0 +1,10 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+/**
+ * Order of paged employee listings (EmployeeRepository.findPage). Pages are keyed on the
+ * unique employeeId, so the next page starts right after the last id of the previous one.
+ */
+public enum EmployeeSort {
+    ID_ASCENDING,
+    ID_DESCENDING
+}
@@ -0,0 +1,62 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.util.Objects;
+
+/**
+ * Lightweight, immutable view of an employee for listings: identity, number of concrete
+ * shifts and hours booked in one ISO week (recurring occurrences included), without the
+ * shifts themselves.
+ */
+public final class EmployeeSummary {
+
+    private final String employeeId;
+    private final String name;
+    private final String role;
+    private final int shiftCount;
+    private final YearWeek week;
+    private final long weekMinutes;
+
+    public EmployeeSummary(String employeeId, String name, String role, int shiftCount, YearWeek week, long weekMinutes) {
+        this.employeeId = Objects.requireNonNull(employeeId, "employeeId");
+        this.name = name;
+        this.role = role == null ? "" : role;
+        this.shiftCount = shiftCount;
+        this.week = Objects.requireNonNull(week, "week");
+        this.weekMinutes = weekMinutes;
+    }
+
+    public static EmployeeSummary of(Employee e, YearWeek week) {
+        return new EmployeeSummary(e.getEmployeeId(), e.getName(), e.getRole(),
+                e.getScheduledShifts().size(), week, e.weeklyMinutes(week));
+    }
+
+    public String getEmployeeId() { return employeeId; }
+    public String getName() { return name; }
+    public String getRole() { return role; }
+    public int getShiftCount() { return shiftCount; }
+
+    /** The ISO week getWeekHours refers to. */
+    public YearWeek getWeek() { return week; }
+
+    public double getWeekHours() { return weekMinutes / 60.0; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EmployeeSummary)) return false;
+        EmployeeSummary s = (EmployeeSummary) o;
+        return shiftCount == s.shiftCount && weekMinutes == s.weekMinutes && employeeId.equals(s.employeeId)
+                && Objects.equals(name, s.name) && role.equals(s.role) && week.equals(s.week);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(employeeId, name, role, shiftCount, week, weekMinutes);
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeSummary{" + name + " (" + employeeId + "), role='" + role + "', shifts=" + shiftCount
+                + ", " + week + "=" + getWeekHours() + "h}";
+    }
+}
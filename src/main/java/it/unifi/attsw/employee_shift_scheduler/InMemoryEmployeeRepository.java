@@ -2,33 +2,188 @@ package it.unifi.attsw.employee_shift_scheduler;
 
 import it.unifi.attsw.employee_shift_scheduler.repository.EmployeeRepository;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Simple in-memory repository for fallback or testing use.
+ * In-memory repository for fallback or testing use; safe for concurrent use.
+ *
+ * - Employees live in a ConcurrentHashMap (per-bin locking, lock-free reads).
+ * - Insertion order is kept by a sequence number per employee and a
+ *   ConcurrentSkipListMap sequence -> id, so no global lock is needed; re-saving keeps
+ *   the position, deleting and saving again moves the employee to the end.
+ * - Copy-on-read and copy-on-write: the store never hands out the instance it holds.
+ *   Copies are O(1) because Employee shares its immutable shift snapshot (new Employee(e)),
+ *   so changes to a returned employee only become visible after save().
+ * - A ConcurrentSkipListSet of ids is the sorted view behind findPage (keyset seek with
+ *   tailSet / headSet); it is updated inside the per-key compute of the map.
+ * - Every write stamps the employee with the next value of a global counter (its version),
+ *   so versions never repeat, not even after a delete and a new save.
+ * - findAll() is weakly consistent: it never fails under concurrent writes and sees
+ *   each employee as it was at some point during the call.
  */
 public class InMemoryEmployeeRepository implements EmployeeRepository {
 
-    private final Map<String, Employee> store = new LinkedHashMap<>();
+    private static final class Entry {
+        final long seq;
+        final Employee employee;
+
+        Entry(long seq, Employee employee) {
+            this.seq = seq;
+            this.employee = employee;
+        }
+    }
+
+    private final Map<String, Entry> store = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, String> order = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<String> ids = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong versions = new AtomicLong();
 
     @Override
     public Employee save(Employee employee) {
-        store.put(employee.getEmployeeId(), employee);
+        employee.setVersion(versions.incrementAndGet());
+        Employee stored = new Employee(employee);
+        store.compute(employee.getEmployeeId(), (id, old) -> replace(id, old, stored));
         return employee;
     }
 
+    /** The version check and the write happen in the same per-key compute. */
+    @Override
+    public boolean saveIfUnchanged(Employee employee) {
+        long expected = employee.getVersion();
+        long version = versions.incrementAndGet();
+        Employee stored = new Employee(employee);
+        stored.setVersion(version);
+        boolean[] saved = new boolean[1];
+        store.compute(employee.getEmployeeId(), (id, old) -> {
+            if ((old == null ? 0 : old.employee.getVersion()) != expected) return old;
+            saved[0] = true;
+            return replace(id, old, stored);
+        });
+        if (saved[0]) employee.setVersion(version);
+        return saved[0];
+    }
+
+    /** New entry for `id`; keeps the position of `old`, or appends a new employee. */
+    private Entry replace(String id, Entry old, Employee stored) {
+        if (old != null) return new Entry(old.seq, stored);
+        long seq = sequence.incrementAndGet();
+        order.put(seq, id);
+        ids.add(id);
+        return new Entry(seq, stored);
+    }
+
     @Override
     public Optional<Employee> findById(String id) {
-        return Optional.ofNullable(store.get(id));
+        Entry e = id == null ? null : store.get(id);
+        return e == null ? Optional.empty() : Optional.of(new Employee(e.employee));
     }
 
     @Override
     public List<Employee> findAll() {
-        return new ArrayList<>(store.values());
+        List<Employee> out = new ArrayList<>();
+        for (Map.Entry<Long, String> o : order.entrySet()) {
+            Entry e = store.get(o.getValue());
+            // skip ids deleted (or deleted and re-saved at a later position) meanwhile
+            if (e != null && e.seq == o.getKey()) out.add(new Employee(e.employee));
+        }
+        return out;
+    }
+
+    /** Summarizes the stored snapshots directly, without copying the employees. */
+    @Override
+    public List<EmployeeSummary> findAllSummaries(YearWeek week) {
+        List<EmployeeSummary> out = new ArrayList<>();
+        for (Map.Entry<Long, String> o : order.entrySet()) {
+            Entry e = store.get(o.getValue());
+            if (e != null && e.seq == o.getKey()) out.add(EmployeeSummary.of(e.employee, week));
+        }
+        return out;
+    }
+
+    @Override
+    public List<EmployeeSummary> findPage(String afterEmployeeId, int limit, EmployeeSort sort) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive");
+        NavigableSet<String> view = sort == EmployeeSort.ID_DESCENDING ? ids.descendingSet() : ids;
+        if (afterEmployeeId != null) view = view.tailSet(afterEmployeeId, false);
+        YearWeek week = YearWeek.from(LocalDate.now());
+        List<EmployeeSummary> out = new ArrayList<>(limit);
+        for (String id : view) {
+            Entry e = store.get(id);
+            if (e == null) continue;   // deleted meanwhile
+            out.add(EmployeeSummary.of(e.employee, week));
+            if (out.size() == limit) break;
+        }
+        return out;
+    }
+
+    @Override
+    public List<Employee> saveAll(Collection<Employee> employees) {
+        List<Employee> out = new ArrayList<>(employees.size());
+        for (Employee e : employees) {
+            out.add(save(e));
+        }
+        return out;
+    }
+
+    @Override
+    public List<Employee> findAllById(Collection<String> ids) {
+        List<Employee> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Entry e = id == null ? null : store.get(id);
+            if (e != null) out.add(new Employee(e.employee));
+        }
+        return out;
+    }
+
+    @Override
+    public Map<String, Long> findVersions(Collection<String> ids) {
+        Map<String, Long> out = new HashMap<>();
+        for (String id : ids) {
+            Entry e = id == null ? null : store.get(id);
+            if (e != null) out.put(id, e.employee.getVersion());
+        }
+        return out;
+    }
+
+    @Override
+    public void deleteAllById(Collection<String> ids) {
+        for (String id : ids) {
+            deleteById(id);
+        }
+    }
+
+    /** Validates and replaces inside the map's per-key compute, so concurrent adds cannot be lost. */
+    @Override
+    public Optional<Employee> addShiftIfNoConflict(String employeeId, Shift shift) {
+        if (employeeId == null) return Optional.empty();
+        Employee[] updated = new Employee[1];
+        store.computeIfPresent(employeeId, (id, old) -> {
+            Employee copy = new Employee(old.employee);
+            try {
+                copy.addShift(shift);
+            } catch (IllegalArgumentException e) {
+                return old;
+            }
+            copy.setVersion(versions.incrementAndGet());
+            updated[0] = copy;
+            return new Entry(old.seq, copy);
+        });
+        return updated[0] == null ? Optional.empty() : Optional.of(new Employee(updated[0]));
     }
 
     @Override
     public void deleteById(String id) {
-        store.remove(id);
+        if (id == null) return;
+        store.computeIfPresent(id, (key, removed) -> {
+            order.remove(removed.seq);
+            ids.remove(key);
+            return null;
+        });
     }
 }
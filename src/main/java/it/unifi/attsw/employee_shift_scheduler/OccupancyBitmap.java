@@ -0,0 +1,151 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Persistent occupancy bitmap on a fixed grid of 15-minute slots.
+ *
+ * - Slots are aligned to UTC: slot 0 starts on Monday 1970-01-05T00:00Z, and each
+ *   UTC week (Monday to Monday) holds 672 slots packed into 11 longs (bit i of word
+ *   j is slot 64 * j + i of the week). Zone offsets are whole quarters of an hour almost
+ *   everywhere, so local slots line up with the same grid.
+ * - A slot is busy when a shift covers any part of it, so "free" is always safe.
+ * - Only weeks with at least one busy slot are stored; updates copy the 11 words of the
+ *   touched weeks and share everything else with the previous version.
+ */
+public final class OccupancyBitmap {
+
+    public static final Duration SLOT = Duration.ofMinutes(15);
+    public static final int SLOTS_PER_WEEK = 7 * 24 * 4;
+    public static final int WORDS_PER_WEEK = (SLOTS_PER_WEEK + 63) / 64;
+
+    private static final long SLOT_SECONDS = SLOT.getSeconds();
+    private static final long FIRST_MONDAY_SECONDS = 4 * 86_400L;
+
+    static final OccupancyBitmap EMPTY = new OccupancyBitmap(PersistentTreeMap.empty());
+
+    private final PersistentTreeMap<Long, long[]> weeks;
+
+    private OccupancyBitmap(PersistentTreeMap<Long, long[]> weeks) {
+        this.weeks = weeks;
+    }
+
+    // --- grid arithmetic ---
+
+    /** Index of the slot containing t. */
+    public static long slotOf(Instant t) {
+        return Math.floorDiv(t.getEpochSecond() - FIRST_MONDAY_SECONDS, SLOT_SECONDS);
+    }
+
+    /** Index of the first slot starting at or after t. */
+    public static long slotCeil(Instant t) {
+        long slot = slotOf(t);
+        return slotStart(slot).equals(t) ? slot : slot + 1;
+    }
+
+    public static Instant slotStart(long slot) {
+        return Instant.ofEpochSecond(FIRST_MONDAY_SECONDS + slot * SLOT_SECONDS);
+    }
+
+    /** UTC week containing t (index into the grid, not an ISO week number). */
+    public static long weekOf(Instant t) {
+        return Math.floorDiv(slotOf(t), SLOTS_PER_WEEK);
+    }
+
+    public static Instant weekStart(long week) {
+        return slotStart(week * SLOTS_PER_WEEK);
+    }
+
+    // --- reads ---
+
+    /** Copy of the 11 words of the given week (all zero when nothing is booked). */
+    public long[] words(long week) {
+        long[] w = weeks.get(week);
+        return w == null ? new long[WORDS_PER_WEEK] : w.clone();
+    }
+
+    boolean isEmpty(long week) {
+        return !weeks.containsKey(week);
+    }
+
+    // --- writes ---
+
+    /** Bitmap with every slot touched by [start, end) marked busy. */
+    OccupancyBitmap with(Instant start, Instant end) {
+        return update(slotOf(start), slotCeil(end), true);
+    }
+
+    /** Bitmap with every slot touched by [start, end) marked free. */
+    OccupancyBitmap without(Instant start, Instant end) {
+        return update(slotOf(start), slotCeil(end), false);
+    }
+
+    private OccupancyBitmap update(long fromSlot, long toSlot, boolean busy) {
+        PersistentTreeMap<Long, long[]> next = weeks;
+        long slot = fromSlot;
+        while (slot < toSlot) {
+            long week = Math.floorDiv(slot, SLOTS_PER_WEEK);
+            long weekEnd = (week + 1) * SLOTS_PER_WEEK;
+            long upTo = Math.min(toSlot, weekEnd);
+            long[] current = next.get(week);
+            if (current != null || busy) {
+                long[] w = current == null ? new long[WORDS_PER_WEEK] : current.clone();
+                int from = (int) (slot - week * SLOTS_PER_WEEK);
+                int to = (int) (upTo - week * SLOTS_PER_WEEK);
+                if (busy) setRange(w, from, to); else clearRange(w, from, to);
+                next = isZero(w) ? next.remove(week) : next.put(week, w);
+            }
+            slot = upTo;
+        }
+        return next == weeks ? this : new OccupancyBitmap(next);
+    }
+
+    // --- word helpers ---
+
+    /** Set bits [from, to) of a word array. */
+    static void setRange(long[] words, int from, int to) {
+        if (from >= to) return;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) words[i] = -1L;
+        words[last] |= lastMask;
+    }
+
+    static void clearRange(long[] words, int from, int to) {
+        if (from >= to) return;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) words[i] = 0L;
+        words[last] &= ~lastMask;
+    }
+
+    private static boolean isZero(long[] words) {
+        for (long w : words) {
+            if (w != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("OccupancyBitmap{");
+        weeks.forEach((week, w) -> sb.append(week).append('=').append(Arrays.toString(w)).append(' '));
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,146 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Minimal persistent (immutable, structurally shared) sorted map.
+ *
+ * AVL tree with path copying: put/remove return a new map in O(log n) and share every
+ * untouched node with the previous version, so old versions stay valid snapshots.
+ */
+final class PersistentTreeMap<K extends Comparable<? super K>, V> {
+
+    private static final PersistentTreeMap<?, ?> EMPTY = new PersistentTreeMap<>(null);
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int height;
+        final int size;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    private final Node<K, V> root;
+
+    private PersistentTreeMap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<? super K>, V> PersistentTreeMap<K, V> empty() {
+        return (PersistentTreeMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    V get(K key) {
+        Node<K, V> n = root;
+        while (n != null) {
+            int c = key.compareTo(n.key);
+            if (c == 0) return n.value;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    V getOrDefault(K key, V fallback) {
+        V v = get(key);
+        return v == null ? fallback : v;
+    }
+
+    boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    PersistentTreeMap<K, V> put(K key, V value) {
+        if (value == null) throw new IllegalArgumentException("null values are not supported");
+        return new PersistentTreeMap<>(put(root, key, value));
+    }
+
+    PersistentTreeMap<K, V> remove(K key) {
+        if (!containsKey(key)) return this;
+        return new PersistentTreeMap<>(remove(root, key));
+    }
+
+    /** In key order. */
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, action);
+    }
+
+    // --- internals ---
+
+    private static <K, V> void forEach(Node<K, V> n, BiConsumer<? super K, ? super V> action) {
+        if (n == null) return;
+        forEach(n.left, action);
+        action.accept(n.key, n.value);
+        forEach(n.right, action);
+    }
+
+    private static int height(Node<?, ?> n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static int size(Node<?, ?> n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int bf = height(left) - height(right);
+        if (bf > 1) {
+            if (height(left.left) < height(left.right)) {
+                Node<K, V> lr = left.right;
+                left = new Node<>(lr.key, lr.value, new Node<>(left.key, left.value, left.left, lr.left), lr.right);
+            }
+            return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+        }
+        if (bf < -1) {
+            if (height(right.right) < height(right.left)) {
+                Node<K, V> rl = right.left;
+                right = new Node<>(rl.key, rl.value, rl.left, new Node<>(right.key, right.value, rl.right, right.right));
+            }
+            return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> put(Node<K, V> n, K key, V value) {
+        if (n == null) return new Node<>(key, value, null, null);
+        int c = key.compareTo(n.key);
+        if (c == 0) return new Node<>(key, value, n.left, n.right);
+        if (c < 0) return balance(n.key, n.value, put(n.left, key, value), n.right);
+        return balance(n.key, n.value, n.left, put(n.right, key, value));
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> remove(Node<K, V> n, K key) {
+        if (n == null) return null;
+        int c = key.compareTo(n.key);
+        if (c < 0) return balance(n.key, n.value, remove(n.left, key), n.right);
+        if (c > 0) return balance(n.key, n.value, n.left, remove(n.right, key));
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node<K, V> min = n.right;
+        while (min.left != null) min = min.left;
+        return balance(min.key, min.value, n.left, removeMin(n.right));
+    }
+
+    private static <K, V> Node<K, V> removeMin(Node<K, V> n) {
+        if (n.left == null) return n.right;
+        return balance(n.key, n.value, removeMin(n.left), n.right);
+    }
+}
@@ -0,0 +1,293 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Weekly recurring shift template, in the spirit of an iCalendar
+ * RRULE FREQ=WEEKLY;BYDAY=...;INTERVAL=...;UNTIL=...|COUNT=...
+ *
+ * - An occurrence starts at startTime (local time in zone, so it follows DST) on each of
+ *   the given weekdays and lasts duration (at most 24 hours).
+ * - Only every intervalWeeks-th week is active, counting from the week of startDate;
+ *   occurrences before startDate are skipped.
+ * - Bounded by until (inclusive date) and/or count (number of occurrences), or unbounded.
+ *
+ * The template is stored once; occurrences are never materialized up front but expanded
+ * on demand for a query window (occurrencesBetween). Occurrence ids are deterministic:
+ * "templateId@localDate", e.g. "R1@2025-03-03".
+ */
+public final class RecurringShift {
+
+    static final char OCCURRENCE_SEPARATOR = '@';
+    private static final int MAX_INTERVAL_WEEKS = 52;
+
+    private final String id;
+    private final Set<DayOfWeek> days;
+    private final DayOfWeek[] dayOrder;
+    private final LocalTime startTime;
+    private final Duration duration;
+    private final ZoneId zone;
+    private final LocalDate startDate;
+    private final LocalDate until;
+    private final int count;
+    private final int intervalWeeks;
+    private final String notes;
+
+    private final LocalDate firstMonday;
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;   // null when unbounded
+
+    private RecurringShift(Builder b) {
+        if (b.id == null || b.id.isBlank()) throw new IllegalArgumentException("id required");
+        if (b.id.indexOf(OCCURRENCE_SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("id must not contain '" + OCCURRENCE_SEPARATOR + "'");
+        }
+        if (b.days == null || b.days.isEmpty()) throw new IllegalArgumentException("at least one weekday required");
+        if (b.startTime == null || b.startDate == null || b.zone == null) {
+            throw new IllegalArgumentException("startTime/startDate/zone required");
+        }
+        if (b.duration == null || b.duration.isZero() || b.duration.isNegative()
+                || b.duration.compareTo(Duration.ofHours(24)) > 0) {
+            throw new IllegalArgumentException("duration must be positive and at most 24 hours");
+        }
+        if (b.intervalWeeks < 1 || b.intervalWeeks > MAX_INTERVAL_WEEKS) {
+            throw new IllegalArgumentException("intervalWeeks must be between 1 and " + MAX_INTERVAL_WEEKS);
+        }
+        if (b.count < 0) throw new IllegalArgumentException("count must not be negative (0 = unbounded)");
+        if (b.until != null && b.until.isBefore(b.startDate)) {
+            throw new IllegalArgumentException("until must not be before startDate");
+        }
+        this.id = b.id;
+        this.days = Collections.unmodifiableSet(EnumSet.copyOf(b.days));
+        this.dayOrder = this.days.toArray(new DayOfWeek[0]);
+        this.startTime = b.startTime;
+        this.duration = b.duration;
+        this.zone = b.zone;
+        this.startDate = b.startDate;
+        this.until = b.until;
+        this.count = b.count;
+        this.intervalWeeks = b.intervalWeeks;
+        this.notes = b.notes == null ? "" : b.notes;
+
+        this.firstMonday = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        this.firstDate = nextMatch(startDate);
+        LocalDate last = count > 0 ? nthDate(count) : null;
+        if (until != null) {
+            LocalDate lastBeforeUntil = previousMatch(until);
+            if (lastBeforeUntil == null) throw new IllegalArgumentException("recurring shift has no occurrences");
+            if (last == null || lastBeforeUntil.isBefore(last)) last = lastBeforeUntil;
+        }
+        this.lastDate = last;
+    }
+
+    /**
+     * Builder for a template starting on startDate; defaults: system zone, every week,
+     * unbounded, no notes.
+     */
+    public static Builder builder(String id, Set<DayOfWeek> days, LocalTime startTime,
+                                  Duration duration, LocalDate startDate) {
+        return new Builder(id, days, startTime, duration, startDate);
+    }
+
+    public static final class Builder {
+        private final String id;
+        private final Set<DayOfWeek> days;
+        private final LocalTime startTime;
+        private final Duration duration;
+        private final LocalDate startDate;
+        private ZoneId zone = ZoneId.systemDefault();
+        private LocalDate until;
+        private int count;
+        private int intervalWeeks = 1;
+        private String notes = "";
+
+        private Builder(String id, Set<DayOfWeek> days, LocalTime startTime, Duration duration, LocalDate startDate) {
+            this.id = id;
+            this.days = days;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.startDate = startDate;
+        }
+
+        public Builder zone(ZoneId zone) { this.zone = zone; return this; }
+        public Builder everyWeeks(int intervalWeeks) { this.intervalWeeks = intervalWeeks; return this; }
+        /** Last date (inclusive) on which an occurrence may start; null for no end date. */
+        public Builder until(LocalDate until) { this.until = until; return this; }
+        /** Total number of occurrences; 0 for no limit. */
+        public Builder count(int count) { this.count = count; return this; }
+        public Builder notes(String notes) { this.notes = notes; return this; }
+
+        public RecurringShift build() {
+            return new RecurringShift(this);
+        }
+    }
+
+    // --- accessors ---
+
+    public String getId() { return id; }
+    public Set<DayOfWeek> getDays() { return days; }
+    public LocalTime getStartTime() { return startTime; }
+    public Duration getDuration() { return duration; }
+    public ZoneId getZone() { return zone; }
+    public LocalDate getStartDate() { return startDate; }
+    /** May be null (no end date). */
+    public LocalDate getUntil() { return until; }
+    /** 0 when the number of occurrences is not limited. */
+    public int getCount() { return count; }
+    public int getIntervalWeeks() { return intervalWeeks; }
+    public String getNotes() { return notes; }
+
+    /** Start of the first occurrence. */
+    public Instant firstStart() {
+        return startOn(firstDate);
+    }
+
+    /** End of the last occurrence, or Instant.MAX when unbounded. */
+    public Instant spanEnd() {
+        return lastDate == null ? Instant.MAX : startOn(lastDate).plus(duration);
+    }
+
+    /** Whether an occurrence starts on the given local date. */
+    public boolean occursOn(LocalDate date) {
+        return !date.isBefore(firstDate)
+                && (lastDate == null || !date.isAfter(lastDate))
+                && matchesPattern(date);
+    }
+
+    /** The occurrence starting on the given local date, or null if there is none. */
+    public Shift occurrenceOn(LocalDate date) {
+        if (!occursOn(date)) return null;
+        Instant start = startOn(date);
+        return new Shift(id + OCCURRENCE_SEPARATOR + date, start, start.plus(duration), notes);
+    }
+
+    /**
+     * Occurrences overlapping [from, to), ordered by start. Cost is proportional to the
+     * number of days in the window, not to the length of the whole series.
+     */
+    public List<Shift> occurrencesBetween(Instant from, Instant to) {
+        List<Shift> out = new ArrayList<>();
+        if (!from.isBefore(to) || !to.isAfter(firstStart()) || !from.isBefore(spanEnd())) return out;
+        // an occurrence lasts at most a day, so one starting the day before may still reach into the window
+        LocalDate d = max(LocalDate.ofInstant(from, zone).minusDays(1), firstDate);
+        LocalDate last = LocalDate.ofInstant(to, zone);
+        if (lastDate != null && lastDate.isBefore(last)) last = lastDate;
+        for (; !d.isAfter(last); d = d.plusDays(1)) {
+            Shift s = occurrenceOn(d);
+            if (s != null && s.getStart().isBefore(to) && s.getEnd().isAfter(from)) out.add(s);
+        }
+        return out;
+    }
+
+    /** Any occurrence overlapping [from, to), or null. */
+    public Shift findOverlap(Instant from, Instant to) {
+        List<Shift> hits = occurrencesBetween(from, to);
+        return hits.isEmpty() ? null : hits.get(0);
+    }
+
+    /**
+     * Minutes of all occurrences falling into [from, to), with occurrences clipped to the window.
+     */
+    public long minutesBetween(Instant from, Instant to) {
+        long minutes = 0;
+        for (Shift s : occurrencesBetween(from, to)) {
+            Instant a = s.getStart().isBefore(from) ? from : s.getStart();
+            Instant b = s.getEnd().isAfter(to) ? to : s.getEnd();
+            minutes += Duration.between(a, b).toMinutes();
+        }
+        return minutes;
+    }
+
+    /**
+     * Resolve an occurrence id ("templateId@localDate") against this template.
+     */
+    Shift occurrenceById(String occurrenceId) {
+        int at = occurrenceId.lastIndexOf(OCCURRENCE_SEPARATOR);
+        if (at < 0 || !occurrenceId.substring(0, at).equals(id)) return null;
+        try {
+            return occurrenceOn(LocalDate.parse(occurrenceId.substring(at + 1)));
+        } catch (RuntimeException badDate) {
+            return null;
+        }
+    }
+
+    // --- internals ---
+
+    private Instant startOn(LocalDate date) {
+        return date.atTime(startTime).atZone(zone).toInstant();
+    }
+
+    private boolean matchesPattern(LocalDate date) {
+        if (!days.contains(date.getDayOfWeek())) return false;
+        long weeks = ChronoUnit.WEEKS.between(firstMonday, date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        return weeks >= 0 && weeks % intervalWeeks == 0;
+    }
+
+    /** First matching date on or after date (the first week is always active). */
+    private LocalDate nextMatch(LocalDate date) {
+        LocalDate d = date;
+        while (!matchesPattern(d)) d = d.plusDays(1);
+        return d;
+    }
+
+    /** Last matching date on or before date and not before firstDate, or null. */
+    private LocalDate previousMatch(LocalDate date) {
+        for (LocalDate d = date; !d.isBefore(firstDate); d = d.minusDays(1)) {
+            if (matchesPattern(d)) return d;
+        }
+        return null;
+    }
+
+    /** Date of the n-th occurrence (1-based), computed arithmetically. */
+    private LocalDate nthDate(int n) {
+        // pretend the first week is complete: skip the weekdays that fall before startDate
+        int skipped = 0;
+        for (DayOfWeek d : dayOrder) {
+            if (d.compareTo(startDate.getDayOfWeek()) < 0) skipped++;
+        }
+        long index = skipped + (long) n - 1;
+        long week = index / dayOrder.length;
+        DayOfWeek day = dayOrder[(int) (index % dayOrder.length)];
+        return firstMonday.plusWeeks(week * intervalWeeks).plusDays(day.getValue() - 1L);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RecurringShift)) return false;
+        RecurringShift r = (RecurringShift) o;
+        return count == r.count && intervalWeeks == r.intervalWeeks && id.equals(r.id)
+                && days.equals(r.days) && startTime.equals(r.startTime) && duration.equals(r.duration)
+                && zone.equals(r.zone) && startDate.equals(r.startDate) && Objects.equals(until, r.until)
+                && notes.equals(r.notes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, days, startTime, duration, zone, startDate, until, count, intervalWeeks);
+    }
+
+    @Override
+    public String toString() {
+        return "RecurringShift{" + id + " " + days + " " + startTime + "+" + duration + " " + zone
+                + " from " + startDate + (intervalWeeks > 1 ? " every " + intervalWeeks + " weeks" : "")
+                + (until != null ? " until " + until : "") + (count > 0 ? " x" + count : "") + "}";
+    }
+}
@@ -5,7 +5,6 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Shift value object.
@@ -13,9 +12,17 @@ import java.util.UUID;
  *
  * Added a no-arg constructor for frameworks/tests that require it.
  * The no-arg constructor creates a valid short dummy shift (now -> now + 1h).
+ *
+ * Ids of shifts created without an explicit id come from a pluggable ShiftIdGenerator
+ * (time-ordered by default, see setDefaultIdGenerator).
+ *
+ * Behaviour methods go through the getters so that flyweight views (see ShiftStore)
+ * can override them and read from external storage.
  */
 public class Shift {
 
+    private static volatile ShiftIdGenerator defaultIdGenerator = ShiftIdGenerator.timeOrdered();
+
     private final String id;
     private final Instant start;
     private final Instant end;
@@ -28,7 +35,7 @@ public class Shift {
     public Shift() {
         Instant s = Instant.now();
         Instant e = s.plus(Duration.ofHours(1));
-        this.id = UUID.randomUUID().toString();
+        this.id = defaultIdGenerator.nextId();
         this.start = s;
         this.end = e;
         this.notes = "";
@@ -48,7 +55,11 @@ public class Shift {
     }
 
     public Shift(Instant start, Instant end) {
-        this(UUID.randomUUID().toString(), start, end, "");
+        this(defaultIdGenerator.nextId(), start, end, "");
+    }
+
+    public Shift(ShiftIdGenerator idGenerator, Instant start, Instant end, String notes) {
+        this(Objects.requireNonNull(idGenerator, "idGenerator").nextId(), start, end, notes);
     }
 
     // LocalDateTime constructors (use system default zone)
@@ -57,13 +68,35 @@ public class Shift {
     }
 
     public Shift(LocalDateTime startLocal, LocalDateTime endLocal, String notes) {
-        this(UUID.randomUUID().toString(), toInstant(startLocal), toInstant(endLocal), notes);
+        this(defaultIdGenerator.nextId(), toInstant(startLocal), toInstant(endLocal), notes);
     }
 
     public Shift(LocalDateTime startLocal, LocalDateTime endLocal) {
         this(startLocal, endLocal, "");
     }
 
+    /**
+     * Replace the generator used by constructors without an explicit id.
+     */
+    public static void setDefaultIdGenerator(ShiftIdGenerator generator) {
+        defaultIdGenerator = Objects.requireNonNull(generator, "generator");
+    }
+
+    public static ShiftIdGenerator getDefaultIdGenerator() {
+        return defaultIdGenerator;
+    }
+
+    /**
+     * For flyweight views backed by a ShiftStore: fields stay null, getters are overridden.
+     */
+    Shift(ShiftStore backing) {
+        Objects.requireNonNull(backing, "backing");
+        this.id = null;
+        this.start = null;
+        this.end = null;
+        this.notes = null;
+    }
+
     private static Instant toInstant(LocalDateTime ldt) {
         Objects.requireNonNull(ldt, "LocalDateTime required");
         return ldt.atZone(ZoneId.systemDefault()).toInstant();
@@ -79,11 +112,11 @@ public class Shift {
     public Instant getEnd() { return end; }
     public String getNotes() { return notes; }
 
-    public Duration duration() { return Duration.between(start, end); }
+    public Duration duration() { return Duration.between(getStart(), getEnd()); }
 
     public boolean overlaps(Shift other) {
         Objects.requireNonNull(other, "other");
-        return this.start.isBefore(other.end) && other.start.isBefore(this.end);
+        return this.getStart().isBefore(other.getEnd()) && other.getStart().isBefore(this.getEnd());
     }
 
     @Override
@@ -91,16 +124,16 @@ public class Shift {
         if (this == o) return true;
         if (!(o instanceof Shift)) return false;
         Shift s = (Shift) o;
-        return id.equals(s.id) && start.equals(s.start) && end.equals(s.end);
+        return getId().equals(s.getId()) && getStart().equals(s.getStart()) && getEnd().equals(s.getEnd());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, start, end);
+        return Objects.hash(getId(), getStart(), getEnd());
     }
 
     @Override
     public String toString() {
-        return "Shift{" + id + " " + start + "->" + end + "}";
+        return "Shift{" + getId() + " " + getStart() + "->" + getEnd() + "}";
     }
 }
@@ -0,0 +1,106 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Changes of an Employee's shifts since it was last persisted (see Employee.pendingChanges).
+ *
+ * - added / removed: concrete shifts added and shift ids removed since the last save, so a
+ *   repository can write just those ($push / $pull);
+ * - structural: anything that cannot be expressed as such a delta (a new employee,
+ *   setScheduledShifts, recurring template changes). A repository must then write the whole
+ *   employee. Deltas keep being recorded meanwhile, so nothing is lost if the employee
+ *   changes while that write is in flight.
+ *
+ * Immutable; it travels inside the employee's schedule snapshot, so it is always
+ * consistent with the shifts it describes.
+ */
+public final class ShiftChanges {
+
+    private static final AtomicLong STRUCTURAL_SEQUENCE = new AtomicLong();
+
+    static final ShiftChanges NONE = new ShiftChanges(PersistentTreeMap.empty(), PersistentTreeMap.empty(), 0);
+
+    private final PersistentTreeMap<String, Shift> added;
+    private final PersistentTreeMap<String, Boolean> removed;
+    private final long structural;   // 0 = none, otherwise a token identifying the change
+
+    private ShiftChanges(PersistentTreeMap<String, Shift> added, PersistentTreeMap<String, Boolean> removed,
+                         long structural) {
+        this.added = added;
+        this.removed = removed;
+        this.structural = structural;
+    }
+
+    // --- queries ---
+
+    public boolean isStructural() {
+        return structural != 0;
+    }
+
+    public boolean isEmpty() {
+        return structural == 0 && added.isEmpty() && removed.isEmpty();
+    }
+
+    /** Shifts added since the last save (ordered by id). */
+    public List<Shift> getAddedShifts() {
+        List<Shift> out = new ArrayList<>(added.size());
+        added.forEach((id, s) -> out.add(s));
+        return out;
+    }
+
+    /** Ids of previously persisted shifts removed since the last save. */
+    public Set<String> getRemovedShiftIds() {
+        Set<String> out = new LinkedHashSet<>();
+        removed.forEach((id, flag) -> out.add(id));
+        return Collections.unmodifiableSet(out);
+    }
+
+    // --- transitions (used by ShiftSchedule) ---
+
+    ShiftChanges withAdded(Shift shift) {
+        return new ShiftChanges(added.put(shift.getId(), shift), removed, structural);
+    }
+
+    ShiftChanges withRemoved(Shift shift) {
+        if (added.get(shift.getId()) == shift && !removed.containsKey(shift.getId())) {
+            // never persisted: just forget the addition
+            return new ShiftChanges(added.remove(shift.getId()), removed, structural);
+        }
+        return new ShiftChanges(added.remove(shift.getId()), removed.put(shift.getId(), Boolean.TRUE), structural);
+    }
+
+    ShiftChanges withStructuralChange() {
+        return new ShiftChanges(added, removed, STRUCTURAL_SEQUENCE.incrementAndGet());
+    }
+
+    /**
+     * What is left after `persisted` (an earlier value of these changes) has been written:
+     * changes made since then stay pending.
+     */
+    ShiftChanges without(ShiftChanges persisted) {
+        if (persisted == this) return NONE;
+        List<String> written = new ArrayList<>();
+        persisted.added.forEach((id, shift) -> {
+            if (added.get(id) == shift) written.add(id);
+        });
+        PersistentTreeMap<String, Shift> a = added;
+        for (String id : written) a = a.remove(id);
+        List<String> deleted = new ArrayList<>();
+        persisted.removed.forEach((id, flag) -> deleted.add(id));
+        PersistentTreeMap<String, Boolean> r = removed;
+        for (String id : deleted) r = r.remove(id);
+        return new ShiftChanges(a, r, structural == persisted.structural ? 0 : structural);
+    }
+
+    @Override
+    public String toString() {
+        return "ShiftChanges{" + (isStructural() ? "structural, " : "")
+                + "added=" + added.size() + ", removed=" + getRemovedShiftIds() + "}";
+    }
+}
@@ -0,0 +1,129 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * BSON codec for a stored shift (see MongoEmployeeRepository for the layout), reading and
+ * writing the fields directly instead of going through a Document.
+ *
+ * - Ids in canonical UUID form are 16-byte binaries (subtype 4), other ids strings.
+ * - Times are dates plus an optional sub-millisecond remainder (startNanos / endNanos);
+ *   schema-1 ISO strings are still read.
+ * - A shift whose times are missing, unreadable or not a valid interval decodes as null
+ *   (no Shift can hold it); EmployeeCodec skips and reports such shifts.
+ * - Shifts stored without an id get one from the supplied generator.
+ */
+public final class ShiftCodec implements Codec<Shift> {
+
+    private final Supplier<ShiftIdGenerator> idGenerator;
+
+    public ShiftCodec() {
+        this(Shift::getDefaultIdGenerator);
+    }
+
+    public ShiftCodec(Supplier<ShiftIdGenerator> idGenerator) {
+        this.idGenerator = Objects.requireNonNull(idGenerator, "idGenerator");
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Shift shift, EncoderContext context) {
+        writer.writeStartDocument();
+        byte[] uuid = ShiftIds.toBytes(shift.getId());
+        if (uuid == null) {
+            writer.writeString("id", shift.getId());
+        } else {
+            writer.writeBinaryData("id", new BsonBinary(BsonBinarySubType.UUID_STANDARD, uuid));
+        }
+        writeInstant(writer, "start", shift.getStart());
+        writeInstant(writer, "end", shift.getEnd());
+        writer.writeEndDocument();
+    }
+
+    private static void writeInstant(BsonWriter writer, String field, Instant t) {
+        if (t == null) return;
+        writer.writeDateTime(field, t.toEpochMilli());
+        int subMillis = t.getNano() % 1_000_000;
+        if (subMillis != 0) writer.writeInt32(field + "Nanos", subMillis);
+    }
+
+    @Override
+    public Shift decode(BsonReader reader, DecoderContext context) {
+        String id = null;
+        Instant start = null;
+        Instant end = null;
+        long startNanos = 0;
+        long endNanos = 0;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "id": id = readId(reader); break;
+                case "start": start = readInstant(reader); break;
+                case "end": end = readInstant(reader); break;
+                case "startNanos": startNanos = readLong(reader); break;
+                case "endNanos": endNanos = readLong(reader); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        if (start == null || end == null || !end.plusNanos(endNanos).isAfter(start.plusNanos(startNanos))) {
+            return null;
+        }
+        start = start.plusNanos(startNanos);
+        end = end.plusNanos(endNanos);
+        return id != null && !id.isBlank() ? new Shift(id, start, end) : new Shift(idGenerator.get(), start, end, "");
+    }
+
+    private static String readId(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case BINARY: return ShiftIds.fromBytes(reader.readBinaryData().getData());
+            case STRING: return reader.readString();
+            case OBJECT_ID: return reader.readObjectId().toHexString();
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static Instant readInstant(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case DATE_TIME: return Instant.ofEpochMilli(reader.readDateTime());
+            case STRING:
+                try {
+                    return Instant.parse(reader.readString());
+                } catch (Exception ignore) {
+                    return null;
+                }
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static long readLong(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32: return reader.readInt32();
+            case INT64: return reader.readInt64();
+            default:
+                reader.skipValue();
+                return 0;
+        }
+    }
+
+    @Override
+    public Class<Shift> getEncoderClass() {
+        return Shift.class;
+    }
+}
@@ -0,0 +1,134 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rewrites schema-1 employee documents (shift times as ISO strings) in place with BSON
+ * dates and the current schemaVersion (see MongoEmployeeRepository).
+ *
+ * - Batched: reads batchSize documents in _id order and writes them back with one
+ *   unordered bulkWrite.
+ * - Resumable: the documents left to migrate are exactly those without the current
+ *   schemaVersion, so a stopped or crashed run just starts again with them; within a run
+ *   an _id cursor visits each document once.
+ * - Safe next to the application: an update only applies if the document's shifts are
+ *   still the ones read (otherwise the next run retries it), and the repository reads both
+ *   forms meanwhile.
+ * - Runnable, so it can run on a background thread; stop() ends it after the current batch.
+ */
+public class ShiftDateMigration implements Runnable {
+
+    private final MongoCollection<Document> collection;
+    private final int batchSize;
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile boolean stopped;
+    private Object lastId;
+
+    public ShiftDateMigration(MongoCollection<Document> collection, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be positive");
+        this.collection = collection;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!stopped && migrateBatch() > 0) {
+                // next batch
+            }
+        } catch (MongoException ex) {
+            System.err.println("ShiftDateMigration stopped: " + ex.getMessage());
+        }
+        System.out.println("ShiftDateMigration: migrated=" + migrated + " skipped=" + skipped);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Migrate the next batch. Returns the number of documents read; 0 once this run has
+     * seen every document that was left.
+     */
+    public synchronized int migrateBatch() {
+        Bson pending = Filters.ne("schemaVersion", MongoEmployeeRepository.SCHEMA_VERSION);
+        Bson filter = lastId == null ? pending : Filters.and(pending, Filters.gt("_id", lastId));
+
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        int read = 0;
+        try (MongoCursor<Document> cursor = collection.find(filter)
+                .sort(Sorts.ascending("_id")).limit(batchSize).iterator()) {
+            while (cursor.hasNext()) {
+                Document d = cursor.next();
+                read++;
+                lastId = d.get("_id");
+                List<Document> converted = convertShifts(d.getList("shifts", Document.class, new ArrayList<>()));
+                if (converted == null) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                writes.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", d.get("_id")), Filters.eq("shifts", d.get("shifts"))),
+                        Updates.combine(Updates.set("shifts", converted),
+                                Updates.set("schemaVersion", MongoEmployeeRepository.SCHEMA_VERSION))));
+            }
+        }
+        if (!writes.isEmpty()) {
+            BulkWriteResult result = collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            migrated.addAndGet(result.getModifiedCount());
+            // changed by the application since it was read: left for the next run
+            skipped.addAndGet(writes.size() - result.getMatchedCount());
+        }
+        return read;
+    }
+
+    /** Shifts with Date times, or null if a time cannot be read (the document is left alone). */
+    private static List<Document> convertShifts(List<Document> shifts) {
+        List<Document> out = new ArrayList<>(shifts.size());
+        for (Document sd : shifts) {
+            Document converted = new Document(sd);
+            for (String field : List.of("start", "end")) {
+                if (!(sd.get(field) instanceof String)) continue;
+                Instant t = MongoEmployeeRepository.readInstant(sd, field);
+                if (t == null) return null;
+                converted.remove(field);
+                MongoEmployeeRepository.appendInstant(converted, field, t);
+            }
+            out.add(converted);
+        }
+        return out;
+    }
+
+    /** Documents migrated by this instance so far. */
+    public long getMigratedCount() {
+        return migrated.get();
+    }
+
+    /** Documents left alone so far (unreadable times or concurrent changes). */
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    /** Documents still in schema version 1. */
+    public long remaining() {
+        return collection.countDocuments(Filters.ne("schemaVersion", MongoEmployeeRepository.SCHEMA_VERSION));
+    }
+}
@@ -0,0 +1,25 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.util.UUID;
+
+/**
+ * Strategy for generating ids of new shifts.
+ *
+ * - timeOrdered(): default, UUIDv7-style ids (time-ordered, thread-local randomness, no shared lock).
+ * - randomUuid(): legacy UUID.randomUUID() ids (shared SecureRandom).
+ *
+ * Both produce canonical UUID strings, which ShiftIds can pack into 16 bytes.
+ */
+@FunctionalInterface
+public interface ShiftIdGenerator {
+
+    String nextId();
+
+    static ShiftIdGenerator timeOrdered() {
+        return TimeOrderedShiftIdGenerator.INSTANCE;
+    }
+
+    static ShiftIdGenerator randomUuid() {
+        return () -> UUID.randomUUID().toString();
+    }
+}
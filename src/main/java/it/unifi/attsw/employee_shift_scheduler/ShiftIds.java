@@ -0,0 +1,48 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Helpers for the compact binary form of shift ids.
+ *
+ * Canonical (lower-case, 36-char) UUID ids are stored as 16 bytes; any other id
+ * (e.g. "SH-100") has no binary form and stays a string.
+ */
+public final class ShiftIds {
+
+    private ShiftIds() {
+    }
+
+    /**
+     * Parse the id as a UUID if it is in canonical form (round-trips exactly), else null.
+     */
+    public static UUID parseCanonicalUuid(String id) {
+        if (id == null || id.length() != 36 || id.charAt(8) != '-') return null;
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /** 16-byte big-endian form of a canonical UUID id, or null if the id has no binary form. */
+    public static byte[] toBytes(String id) {
+        UUID uuid = parseCanonicalUuid(id);
+        if (uuid == null) return null;
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /** Inverse of toBytes. */
+    public static String fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 16) {
+            throw new IllegalArgumentException("shift id must be 16 bytes");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        return new UUID(buf.getLong(), buf.getLong()).toString();
+    }
+}
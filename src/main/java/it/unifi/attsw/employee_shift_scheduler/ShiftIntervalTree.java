@@ -0,0 +1,249 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Persistent, start-ordered interval index used by Employee to store its shifts.
+ *
+ * - AVL tree keyed by (start, end, id); every node carries the max end of its subtree
+ *   and the subtree size.
+ * - Immutable: insert/remove return a new tree in O(log n) via path copying and share all
+ *   untouched nodes with the previous version, which stays a valid snapshot.
+ * - "does anything overlap [start, end)" is O(log n); listing all k overlaps is O(log n + k).
+ * - asList() exposes the shifts in start order as a read-only list view
+ *   (positional get is O(log n), iteration is O(n)).
+ *
+ * Overlapping shifts are allowed (hydrated data is not validated); the overlap rule is
+ * enforced by Employee, not by the index.
+ */
+final class ShiftIntervalTree {
+
+    static final Comparator<Shift> ORDER = Comparator
+            .comparing(Shift::getStart)
+            .thenComparing(Shift::getEnd)
+            .thenComparing(Shift::getId);
+
+    static final ShiftIntervalTree EMPTY = new ShiftIntervalTree(null);
+
+    private static final class Node {
+        final Shift shift;
+        final Node left;
+        final Node right;
+        final int height;
+        final int size;
+        final Instant maxEnd;
+
+        Node(Shift shift, Node left, Node right) {
+            this.shift = shift;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+            Instant max = shift.getEnd();
+            if (left != null && left.maxEnd.isAfter(max)) max = left.maxEnd;
+            if (right != null && right.maxEnd.isAfter(max)) max = right.maxEnd;
+            this.maxEnd = max;
+        }
+    }
+
+    private final Node root;
+    private final List<Shift> view = new AbstractList<Shift>() {
+        @Override public Shift get(int index) { return ShiftIntervalTree.this.get(index); }
+        @Override public int size() { return ShiftIntervalTree.this.size(); }
+        @Override public Iterator<Shift> iterator() { return ShiftIntervalTree.this.iterator(); }
+    };
+
+    private ShiftIntervalTree(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Build a balanced tree from shifts already sorted by ORDER in O(n).
+     */
+    static ShiftIntervalTree fromSorted(List<Shift> sorted) {
+        return sorted.isEmpty() ? EMPTY : new ShiftIntervalTree(build(sorted, 0, sorted.size()));
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /** Read-only, start-ordered view of this (immutable) tree. */
+    List<Shift> asList() {
+        return view;
+    }
+
+    ShiftIntervalTree insert(Shift shift) {
+        return new ShiftIntervalTree(insert(root, shift));
+    }
+
+    /**
+     * Remove the given shift (matched by key, i.e. start/end/id).
+     * Returns this tree if no such shift is stored.
+     */
+    ShiftIntervalTree remove(Shift shift) {
+        Node after = remove(root, shift);
+        return size(after) == size(root) ? this : new ShiftIntervalTree(after);
+    }
+
+    /**
+     * Return any stored shift overlapping [start, end), or null if none.
+     * Uses the max-end augmentation to prune subtrees: O(log n).
+     */
+    Shift findOverlap(Instant start, Instant end) {
+        Node n = root;
+        while (n != null) {
+            if (overlaps(n.shift, start, end)) return n.shift;
+            if (n.left != null && n.left.maxEnd.isAfter(start)) {
+                // if nothing on the left overlaps, nothing on the right can either
+                n = n.left;
+            } else {
+                if (!n.shift.getStart().isBefore(end)) return null;
+                n = n.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All stored shifts overlapping [from, to), in start order. Subtrees that end before
+     * "from" or start at/after "to" are never visited: O(log n + k).
+     */
+    List<Shift> findOverlapping(Instant from, Instant to) {
+        List<Shift> out = new ArrayList<>();
+        collectOverlapping(root, from, to, out);
+        return out;
+    }
+
+    Shift get(int index) {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(root));
+        }
+        Node n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index == leftSize) {
+                return n.shift;
+            } else {
+                index -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    Iterator<Shift> iterator() {
+        return new Iterator<Shift>() {
+            private final Deque<Node> stack = new ArrayDeque<>();
+            { pushLeft(root); }
+
+            private void pushLeft(Node n) {
+                while (n != null) {
+                    stack.push(n);
+                    n = n.left;
+                }
+            }
+
+            @Override public boolean hasNext() { return !stack.isEmpty(); }
+
+            @Override public Shift next() {
+                if (stack.isEmpty()) throw new NoSuchElementException();
+                Node n = stack.pop();
+                pushLeft(n.right);
+                return n.shift;
+            }
+        };
+    }
+
+    // --- internals ---
+
+    private static boolean overlaps(Shift s, Instant start, Instant end) {
+        return s.getStart().isBefore(end) && start.isBefore(s.getEnd());
+    }
+
+    private static void collectOverlapping(Node n, Instant from, Instant to, List<Shift> out) {
+        if (n == null || !n.maxEnd.isAfter(from)) return;
+        collectOverlapping(n.left, from, to, out);
+        if (!n.shift.getStart().isBefore(to)) return;
+        if (n.shift.getEnd().isAfter(from)) out.add(n.shift);
+        collectOverlapping(n.right, from, to, out);
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static Node build(List<Shift> sorted, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node(sorted.get(mid), build(sorted, from, mid), build(sorted, mid + 1, to));
+    }
+
+    /** Rebuild a node with new children, restoring the AVL invariant with at most two rotations. */
+    private static Node balance(Shift shift, Node left, Node right) {
+        int bf = height(left) - height(right);
+        if (bf > 1) {
+            if (height(left.left) < height(left.right)) {
+                Node lr = left.right;
+                left = new Node(lr.shift, new Node(left.shift, left.left, lr.left), lr.right);
+            }
+            return new Node(left.shift, left.left, new Node(shift, left.right, right));
+        }
+        if (bf < -1) {
+            if (height(right.right) < height(right.left)) {
+                Node rl = right.left;
+                right = new Node(rl.shift, rl.left, new Node(right.shift, rl.right, right.right));
+            }
+            return new Node(right.shift, new Node(shift, left, right.left), right.right);
+        }
+        return new Node(shift, left, right);
+    }
+
+    private static Node insert(Node n, Shift shift) {
+        if (n == null) return new Node(shift, null, null);
+        if (ORDER.compare(shift, n.shift) < 0) {
+            return balance(n.shift, insert(n.left, shift), n.right);
+        }
+        return balance(n.shift, n.left, insert(n.right, shift));
+    }
+
+    private static Node remove(Node n, Shift shift) {
+        if (n == null) return null;
+        int c = ORDER.compare(shift, n.shift);
+        if (c < 0) {
+            Node left = remove(n.left, shift);
+            return left == n.left ? n : balance(n.shift, left, n.right);
+        }
+        if (c > 0) {
+            Node right = remove(n.right, shift);
+            return right == n.right ? n : balance(n.shift, n.left, right);
+        }
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node min = n.right;
+        while (min.left != null) min = min.left;
+        return balance(min.shift, n.left, removeMin(n.right));
+    }
+
+    private static Node removeMin(Node n) {
+        if (n.left == null) return n.right;
+        return balance(n.shift, removeMin(n.left), n.right);
+    }
+}
@@ -0,0 +1,449 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable snapshot of an employee's shifts and the indexes derived from them.
+ *
+ * - shifts: persistent interval tree ordered by start (overlap checks in O(log n));
+ * - byId: persistent id -> shift map;
+ * - weeklyMinutes: persistent ISO week -> scheduled minutes map (weeks cut in weekZone);
+ * - occupancy: persistent 15-minute occupancy bitmap of the concrete shifts (see
+ *   OccupancyBitmap), maintained incrementally;
+ * - changes: what changed since the employee was last persisted (ShiftChanges);
+ * - recurring: persistent id -> RecurringShift map. Templates are never expanded up front;
+ *   overlap checks, weekly totals and range queries expand them only over the window asked
+ *   for, so their cost does not grow with the horizon of the series.
+ *
+ * Every "with..." method validates and returns a new snapshot sharing structure with this
+ * one; a snapshot never changes once published, so readers need no locking or copying.
+ */
+final class ShiftSchedule {
+
+    private final ZoneId weekZone;
+    private final ShiftIntervalTree shifts;
+    private final PersistentTreeMap<String, Shift> byId;
+    private final PersistentTreeMap<YearWeek, Long> weeklyMinutes;
+    private final OccupancyBitmap occupancy;
+    private final PersistentTreeMap<String, RecurringShift> recurring;
+    private final ShiftChanges changes;
+
+    private ShiftSchedule(ZoneId weekZone, ShiftIntervalTree shifts,
+                          PersistentTreeMap<String, Shift> byId,
+                          PersistentTreeMap<YearWeek, Long> weeklyMinutes,
+                          OccupancyBitmap occupancy,
+                          PersistentTreeMap<String, RecurringShift> recurring,
+                          ShiftChanges changes) {
+        this.weekZone = weekZone;
+        this.shifts = shifts;
+        this.byId = byId;
+        this.weeklyMinutes = weeklyMinutes;
+        this.occupancy = occupancy;
+        this.recurring = recurring;
+        this.changes = changes;
+    }
+
+    static ShiftSchedule empty(ZoneId weekZone) {
+        return new ShiftSchedule(Objects.requireNonNull(weekZone, "weekZone"), ShiftIntervalTree.EMPTY,
+                PersistentTreeMap.empty(), PersistentTreeMap.empty(), OccupancyBitmap.EMPTY, PersistentTreeMap.empty(),
+                ShiftChanges.NONE.withStructuralChange());
+    }
+
+    /**
+     * Snapshot holding the given shifts, without domain validation (hydration), so stored
+     * data never makes an employee unreadable. Marked as a structural change (see
+     * ShiftChanges). byId cannot tell shifts with the same id apart: the first occurrence
+     * is kept and later ones are dropped (EmployeeCodec reports them for stored data).
+     */
+    static ShiftSchedule of(ZoneId weekZone, Collection<Shift> shifts) {
+        ShiftSchedule empty = empty(weekZone);
+        if (shifts == null || shifts.isEmpty()) return empty;
+        List<Shift> sorted = firstById(shifts);
+        sorted.sort(ShiftIntervalTree.ORDER);
+        return empty.withIndexes(ShiftIntervalTree.fromSorted(sorted), sorted, false);
+    }
+
+    /**
+     * Snapshot with the same concrete shifts but the given templates, without domain
+     * validation (hydration).
+     */
+    ShiftSchedule withRecurringUnchecked(Collection<RecurringShift> templates) {
+        PersistentTreeMap<String, RecurringShift> map = PersistentTreeMap.empty();
+        if (templates != null) {
+            for (RecurringShift r : templates) {
+                map = map.put(r.getId(), r);
+            }
+        }
+        return new ShiftSchedule(weekZone, shifts, byId, weeklyMinutes, occupancy, map, changes.withStructuralChange());
+    }
+
+    // --- reads ---
+
+    ShiftChanges changes() { return changes; }
+
+    ZoneId weekZone() { return weekZone; }
+
+    List<Shift> shifts() { return shifts.asList(); }
+
+    int size() { return shifts.size(); }
+
+    List<RecurringShift> recurring() {
+        List<RecurringShift> out = new ArrayList<>(recurring.size());
+        recurring.forEach((id, r) -> out.add(r));
+        return out;
+    }
+
+    /**
+     * Occupancy words of the given UTC grid week (see OccupancyBitmap): the stored
+     * bitmap of concrete shifts, OR-ed with the recurring occurrences of that week.
+     */
+    long[] occupancyWords(long week) {
+        long[] words = occupancy.words(week);
+        if (recurring.isEmpty()) return words;
+        Instant from = OccupancyBitmap.weekStart(week);
+        Instant to = OccupancyBitmap.weekStart(week + 1);
+        long base = week * OccupancyBitmap.SLOTS_PER_WEEK;
+        recurring.forEach((id, r) -> {
+            for (Shift s : r.occurrencesBetween(from, to)) {
+                long a = Math.max(OccupancyBitmap.slotOf(s.getStart()), base);
+                long b = Math.min(OccupancyBitmap.slotCeil(s.getEnd()), base + OccupancyBitmap.SLOTS_PER_WEEK);
+                OccupancyBitmap.setRange(words, (int) (a - base), (int) (b - base));
+            }
+        });
+        return words;
+    }
+
+    /** Concrete shift or recurring occurrence ("templateId@date") with the given id. */
+    Shift findById(String shiftId) {
+        Shift s = byId.get(shiftId);
+        if (s != null) return s;
+        int at = shiftId.lastIndexOf(RecurringShift.OCCURRENCE_SEPARATOR);
+        if (at < 0) return null;
+        RecurringShift template = recurring.get(shiftId.substring(0, at));
+        return template == null ? null : template.occurrenceById(shiftId);
+    }
+
+    /** Concrete plus recurring minutes in the given week. */
+    long weeklyMinutes(YearWeek week) {
+        return weeklyMinutes.getOrDefault(week, 0L) + recurringMinutes(week);
+    }
+
+    /** Any concrete shift or recurring occurrence overlapping [start, end), or null. */
+    Shift findOverlap(Instant start, Instant end) {
+        Shift clash = shifts.findOverlap(start, end);
+        if (clash != null || recurring.isEmpty()) return clash;
+        Shift[] hit = new Shift[1];
+        recurring.forEach((id, r) -> {
+            if (hit[0] == null) hit[0] = r.findOverlap(start, end);
+        });
+        return hit[0];
+    }
+
+    /** Concrete shifts and recurring occurrences overlapping [from, to), in start order. */
+    List<Shift> findOverlapping(Instant from, Instant to) {
+        List<Shift> out = shifts.findOverlapping(from, to);
+        if (recurring.isEmpty()) return out;
+        recurring.forEach((id, r) -> out.addAll(r.occurrencesBetween(from, to)));
+        out.sort(ShiftIntervalTree.ORDER);
+        return out;
+    }
+
+    /**
+     * Whether withShift(shift) would succeed, without building a snapshot or throwing:
+     * new id, no overlap and every touched week stays within the limit.
+     */
+    boolean accepts(Shift shift) {
+        if (byId.containsKey(shift.getId())) return false;
+        if (findOverlap(shift.getStart(), shift.getEnd()) != null) return false;
+        boolean[] ok = { true };
+        YearWeek.forEachWeek(shift.getStart(), shift.getEnd(), weekZone, (week, minutes) -> {
+            if (ok[0] && weeklyMinutes(week) + minutes > Employee.WEEKLY_LIMIT_MINUTES) ok[0] = false;
+        });
+        return ok[0];
+    }
+
+    // --- writes (validated) ---
+
+    /**
+     * Snapshot with the shift added; throws IllegalArgumentException on a duplicate id,
+     * overlap or weekly-limit violation (checked per ISO week the shift falls into).
+     */
+    ShiftSchedule withShift(Shift shift) {
+        Objects.requireNonNull(shift, "shift");
+        if (byId.containsKey(shift.getId())) {
+            throw new IllegalArgumentException("Shift id already exists: " + shift.getId());
+        }
+        Shift clash = findOverlap(shift.getStart(), shift.getEnd());
+        if (clash != null) {
+            throw new IllegalArgumentException("Shift overlaps existing shift: " + clash.getId());
+        }
+        YearWeek.forEachWeek(shift.getStart(), shift.getEnd(), weekZone, (week, minutes) -> {
+            if (weeklyMinutes(week) + minutes > Employee.WEEKLY_LIMIT_MINUTES) {
+                throw new IllegalArgumentException("Exceeds weekly hour limit in " + week);
+            }
+        });
+        return withIndexes(shifts.insert(shift), List.of(shift), true);
+    }
+
+    /**
+     * Snapshot with the whole batch added, all-or-nothing: the batch is sorted once and
+     * swept for internal overlaps, each shift is checked against the interval index, and
+     * weekly totals are checked once per week for the whole batch.
+     */
+    ShiftSchedule withShifts(Collection<Shift> batchShifts) {
+        List<Shift> batch = new ArrayList<>(batchShifts);
+        for (Shift s : batch) {
+            Objects.requireNonNull(s, "shift");
+            if (byId.containsKey(s.getId())) {
+                throw new IllegalArgumentException("Shift id already exists: " + s.getId());
+            }
+        }
+        checkDistinctIds(batch);
+        batch.sort(ShiftIntervalTree.ORDER);
+
+        Map<YearWeek, Long> batchMinutes = new HashMap<>();
+        Shift previous = null;
+        Instant sweepEnd = null;
+        for (Shift s : batch) {
+            // sweep: sorted by start, so s overlaps the batch iff it starts before the max end so far
+            if (sweepEnd != null && s.getStart().isBefore(sweepEnd)) {
+                throw new IllegalArgumentException("Shift " + s.getId() + " overlaps shift in batch: " + previous.getId());
+            }
+            Shift clash = findOverlap(s.getStart(), s.getEnd());
+            if (clash != null) {
+                throw new IllegalArgumentException("Shift " + s.getId() + " overlaps existing shift: " + clash.getId());
+            }
+            YearWeek.forEachWeek(s.getStart(), s.getEnd(), weekZone, (week, minutes) -> batchMinutes.merge(week, minutes, Long::sum));
+            if (sweepEnd == null || s.getEnd().isAfter(sweepEnd)) {
+                sweepEnd = s.getEnd();
+                previous = s;
+            }
+        }
+        for (Map.Entry<YearWeek, Long> e : batchMinutes.entrySet()) {
+            if (weeklyMinutes(e.getKey()) + e.getValue() > Employee.WEEKLY_LIMIT_MINUTES) {
+                throw new IllegalArgumentException("Exceeds weekly hour limit in " + e.getKey());
+            }
+        }
+        ShiftIntervalTree tree = shifts;
+        for (Shift s : batch) {
+            tree = tree.insert(s);
+        }
+        return withIndexes(tree, batch, true);
+    }
+
+    /** Snapshot without the shift with the given id (this snapshot if there is none). */
+    ShiftSchedule withoutShift(String shiftId) {
+        Shift s = byId.get(shiftId);
+        if (s == null) return this;
+        PersistentTreeMap<YearWeek, Long> weeks = addMinutes(weeklyMinutes, s, -1);
+        ShiftIntervalTree tree = shifts.remove(s);
+        // slots at the edges may be shared with neighbouring shifts: clear, then re-mark those
+        Instant from = OccupancyBitmap.slotStart(OccupancyBitmap.slotOf(s.getStart()));
+        Instant to = OccupancyBitmap.slotStart(OccupancyBitmap.slotCeil(s.getEnd()));
+        OccupancyBitmap bits = occupancy.without(s.getStart(), s.getEnd());
+        for (Shift other : tree.findOverlapping(from, to)) {
+            bits = bits.with(other.getStart(), other.getEnd());
+        }
+        return new ShiftSchedule(weekZone, tree, byId.remove(shiftId), weeks, bits, recurring, changes.withRemoved(s));
+    }
+
+    /**
+     * Snapshot with the template added. Validation never walks the whole series:
+     * - concrete shifts: only those inside the template's span are checked, each against
+     *   the occurrences around it;
+     * - templates (including the new one against itself): both series repeat with the lcm
+     *   of their intervals, so one such period is expanded (at least a year, so DST
+     *   transitions are covered);
+     * - weekly limit: weeks holding concrete minutes, plus one recurrence period after
+     *   every point where the set of active templates changes.
+     * Throws IllegalArgumentException on violation.
+     */
+    ShiftSchedule withRecurring(RecurringShift template) {
+        Objects.requireNonNull(template, "template");
+        if (recurring.containsKey(template.getId())) {
+            throw new IllegalArgumentException("Recurring shift already exists: " + template.getId());
+        }
+        Instant spanStart = template.firstStart();
+        Instant spanEnd = template.spanEnd();
+
+        for (Shift s : shifts.findOverlapping(spanStart, spanEnd)) {
+            if (template.findOverlap(s.getStart(), s.getEnd()) != null) {
+                throw new IllegalArgumentException("Recurring shift " + template.getId()
+                        + " overlaps existing shift: " + s.getId());
+            }
+        }
+        List<RecurringShift> others = recurring();
+        checkNoOverlap(template, template);
+        for (RecurringShift other : others) {
+            checkNoOverlap(template, other);
+        }
+
+        ShiftSchedule next = new ShiftSchedule(weekZone, shifts, byId, weeklyMinutes, occupancy,
+                recurring.put(template.getId(), template), changes.withStructuralChange());
+        for (YearWeek week : weeksToCheck(template, others)) {
+            if (next.weeklyMinutes(week) > Employee.WEEKLY_LIMIT_MINUTES) {
+                throw new IllegalArgumentException("Exceeds weekly hour limit in " + week);
+            }
+        }
+        return next;
+    }
+
+    /** Snapshot without the template with the given id (this snapshot if there is none). */
+    ShiftSchedule withoutRecurring(String templateId) {
+        if (!recurring.containsKey(templateId)) return this;
+        return new ShiftSchedule(weekZone, shifts, byId, weeklyMinutes, occupancy, recurring.remove(templateId),
+                changes.withStructuralChange());
+    }
+
+    /** Snapshot with `persisted` (an earlier value of changes()) no longer pending. */
+    ShiftSchedule withPersisted(ShiftChanges persisted) {
+        ShiftChanges left = changes.without(persisted);
+        return left == changes ? this : withChanges(left);
+    }
+
+    private ShiftSchedule withChanges(ShiftChanges newChanges) {
+        return new ShiftSchedule(weekZone, shifts, byId, weeklyMinutes, occupancy, recurring, newChanges);
+    }
+
+    // --- internals ---
+
+    /** Snapshot with `added` indexed; logAdded: record them in the change log (not when hydrating). */
+    private ShiftSchedule withIndexes(ShiftIntervalTree tree, List<Shift> added, boolean logAdded) {
+        PersistentTreeMap<String, Shift> ids = byId;
+        PersistentTreeMap<YearWeek, Long> weeks = weeklyMinutes;
+        OccupancyBitmap bits = occupancy;
+        ShiftChanges log = changes;
+        for (Shift s : added) {
+            ids = ids.put(s.getId(), s);
+            weeks = addMinutes(weeks, s, 1);
+            bits = bits.with(s.getStart(), s.getEnd());
+            if (logAdded) log = log.withAdded(s);
+        }
+        return new ShiftSchedule(weekZone, tree, ids, weeks, bits, recurring, log);
+    }
+
+    /** The shifts in their order, without those whose id appeared before. */
+    private static List<Shift> firstById(Collection<Shift> shifts) {
+        Set<String> ids = new HashSet<>();
+        List<Shift> out = new ArrayList<>(shifts.size());
+        for (Shift s : shifts) {
+            if (ids.add(s.getId())) out.add(s);
+        }
+        return out;
+    }
+
+    private static void checkDistinctIds(Collection<Shift> shifts) {
+        Set<String> ids = new HashSet<>();
+        for (Shift s : shifts) {
+            if (!ids.add(s.getId())) throw new IllegalArgumentException("Duplicate shift id: " + s.getId());
+        }
+    }
+
+    private long recurringMinutes(YearWeek week) {
+        if (recurring.isEmpty()) return 0;
+        Instant from = week.startIn(weekZone);
+        Instant to = week.plusWeeks(1).startIn(weekZone);
+        long[] total = new long[1];
+        recurring.forEach((id, r) -> total[0] += r.minutesBetween(from, to));
+        return total[0];
+    }
+
+    /** Number of weeks after which a and b (or all templates) repeat: lcm, at least a year. */
+    private static long periodWeeks(long lcmOfIntervals) {
+        return Math.max(lcmOfIntervals, 53) + 1;
+    }
+
+    private static long lcm(long a, long b) {
+        long x = a, y = b;
+        while (y != 0) {
+            long t = x % y;
+            x = y;
+            y = t;
+        }
+        return a / x * b;
+    }
+
+    private static void checkNoOverlap(RecurringShift a, RecurringShift b) {
+        Instant from = a.firstStart().isAfter(b.firstStart()) ? a.firstStart() : b.firstStart();
+        Instant to = from.plus(Duration.ofDays(7 * periodWeeks(lcm(a.getIntervalWeeks(), b.getIntervalWeeks()))));
+        // occurrences last at most a day, so look one day back for ones already running
+        from = from.minus(Duration.ofDays(1));
+        List<Shift> as = a.occurrencesBetween(from, to);
+        List<Shift> bs = a == b ? as : b.occurrencesBetween(from, to);
+        if (a == b) {
+            for (int i = 1; i < as.size(); i++) {
+                if (as.get(i).overlaps(as.get(i - 1))) {
+                    throw new IllegalArgumentException("Recurring shift " + a.getId() + " overlaps itself on " + as.get(i).getId());
+                }
+            }
+            return;
+        }
+        int i = 0, j = 0;
+        while (i < as.size() && j < bs.size()) {
+            Shift x = as.get(i);
+            Shift y = bs.get(j);
+            if (x.overlaps(y)) {
+                throw new IllegalArgumentException("Recurring shift " + a.getId()
+                        + " overlaps recurring shift: " + b.getId() + " (" + y.getId() + ")");
+            }
+            if (x.getEnd().isAfter(y.getEnd())) j++; else i++;
+        }
+    }
+
+    /**
+     * Weeks in which adding template can first break the weekly limit (see withRecurring).
+     */
+    private TreeSet<YearWeek> weeksToCheck(RecurringShift template, List<RecurringShift> others) {
+        Instant spanStart = template.firstStart();
+        Instant spanEnd = template.spanEnd();
+        YearWeek first = YearWeek.from(spanStart, weekZone);
+        YearWeek last = spanEnd.equals(Instant.MAX) ? null : YearWeek.from(spanEnd, weekZone);
+
+        TreeSet<YearWeek> weeks = new TreeSet<>();
+        weeklyMinutes.forEach((week, minutes) -> {
+            if (week.compareTo(first) >= 0 && (last == null || week.compareTo(last) <= 0)) weeks.add(week);
+        });
+
+        long allIntervals = template.getIntervalWeeks();
+        List<Instant> boundaries = new ArrayList<>();
+        boundaries.add(spanStart);
+        for (RecurringShift r : others) {
+            allIntervals = lcm(allIntervals, r.getIntervalWeeks());
+            boundaries.add(r.firstStart());
+            if (!r.spanEnd().equals(Instant.MAX)) boundaries.add(r.spanEnd());
+        }
+        long period = periodWeeks(allIntervals);
+        for (Instant b : boundaries) {
+            YearWeek w = YearWeek.from(b, weekZone);
+            if (w.compareTo(first) < 0) w = first;
+            for (long k = 0; k < period && (last == null || w.compareTo(last) <= 0); k++) {
+                weeks.add(w);
+                w = w.plusWeeks(1);
+            }
+        }
+        if (last != null) weeks.add(last);
+        return weeks;
+    }
+
+    private PersistentTreeMap<YearWeek, Long> addMinutes(PersistentTreeMap<YearWeek, Long> weeks, Shift shift, int sign) {
+        Map<YearWeek, Long> perWeek = new HashMap<>();
+        YearWeek.forEachWeek(shift.getStart(), shift.getEnd(), weekZone, perWeek::put);
+        PersistentTreeMap<YearWeek, Long> acc = weeks;
+        for (Map.Entry<YearWeek, Long> e : perWeek.entrySet()) {
+            long total = acc.getOrDefault(e.getKey(), 0L) + sign * e.getValue();
+            acc = total == 0 ? acc.remove(e.getKey()) : acc.put(e.getKey(), total);
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,250 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Columnar, append-only store of shifts for company-wide datasets.
+ *
+ * One row per shift, kept in parallel primitive arrays:
+ * - start/end as epoch seconds (long[]), plus nano adjustments allocated only if some
+ *   shift has sub-second precision;
+ * - owning employee as an int ordinal (employee ids are dictionary-encoded);
+ * - shift ids: canonical UUID strings are packed into two longs, anything else is
+ *   dictionary-encoded;
+ * - notes are dictionary-encoded (typically only a handful of distinct values).
+ *
+ * A row costs roughly 45 bytes instead of 200+ for a Shift object graph.
+ * view(row) returns a flyweight Shift reading straight from the columns, so existing
+ * Shift-based code keeps working. Not thread-safe for writes.
+ */
+public final class ShiftStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int PACKED_UUID = -1;
+
+    private int size;
+    private long[] startSeconds = new long[INITIAL_CAPACITY];
+    private long[] endSeconds = new long[INITIAL_CAPACITY];
+    private int[] startNanos;   // null until a sub-second instant is added
+    private int[] endNanos;
+    private int[] employeeOrdinals = new int[INITIAL_CAPACITY];
+    private int[] idCodes = new int[INITIAL_CAPACITY];
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private int[] noteCodes = new int[INITIAL_CAPACITY];
+
+    private final StringDictionary employees = new StringDictionary();
+    private final StringDictionary ids = new StringDictionary();
+    private final StringDictionary notes = new StringDictionary();
+
+    /**
+     * Build a store holding every scheduled shift of the given employees.
+     * Employees are registered (and get an ordinal) even when they have no shifts.
+     */
+    public static ShiftStore of(Iterable<Employee> employees) {
+        ShiftStore store = new ShiftStore();
+        for (Employee e : employees) {
+            store.addAll(e);
+        }
+        return store;
+    }
+
+    /** Append all scheduled shifts of the employee. Returns the employee ordinal. */
+    public int addAll(Employee employee) {
+        return addAll(employee.getEmployeeId(), employee.getScheduledShifts());
+    }
+
+    /**
+     * Append the given shifts for the employee, which is registered even without shifts.
+     * Returns the employee ordinal.
+     */
+    public int addAll(String employeeId, Iterable<Shift> shifts) {
+        Objects.requireNonNull(employeeId, "employeeId");
+        int ordinal = employees.encode(employeeId);
+        for (Shift s : shifts) {
+            append(ordinal, s);
+        }
+        return ordinal;
+    }
+
+    /** Append one shift for the given employee. Returns the new row index. */
+    public int add(String employeeId, Shift shift) {
+        Objects.requireNonNull(employeeId, "employeeId");
+        Objects.requireNonNull(shift, "shift");
+        return append(employees.encode(employeeId), shift);
+    }
+
+    private int append(int ordinal, Shift shift) {
+        ensureCapacity(size + 1);
+        int row = size;
+        Instant st = shift.getStart();
+        Instant en = shift.getEnd();
+        startSeconds[row] = st.getEpochSecond();
+        endSeconds[row] = en.getEpochSecond();
+        if (st.getNano() != 0 || en.getNano() != 0 || startNanos != null) {
+            if (startNanos == null) {
+                startNanos = new int[startSeconds.length];
+                endNanos = new int[startSeconds.length];
+            }
+            startNanos[row] = st.getNano();
+            endNanos[row] = en.getNano();
+        }
+        employeeOrdinals[row] = ordinal;
+        encodeId(row, shift.getId());
+        noteCodes[row] = notes.encode(shift.getNotes());
+        size++;
+        return row;
+    }
+
+    private void encodeId(int row, String id) {
+        UUID uuid = ShiftIds.parseCanonicalUuid(id);
+        if (uuid != null) {
+            idCodes[row] = PACKED_UUID;
+            idHigh[row] = uuid.getMostSignificantBits();
+            idLow[row] = uuid.getLeastSignificantBits();
+        } else {
+            idCodes[row] = ids.encode(id);
+        }
+    }
+
+    private void ensureCapacity(int wanted) {
+        if (wanted <= startSeconds.length) return;
+        int cap = Math.max(wanted, startSeconds.length * 2);
+        startSeconds = Arrays.copyOf(startSeconds, cap);
+        endSeconds = Arrays.copyOf(endSeconds, cap);
+        if (startNanos != null) {
+            startNanos = Arrays.copyOf(startNanos, cap);
+            endNanos = Arrays.copyOf(endNanos, cap);
+        }
+        employeeOrdinals = Arrays.copyOf(employeeOrdinals, cap);
+        idCodes = Arrays.copyOf(idCodes, cap);
+        idHigh = Arrays.copyOf(idHigh, cap);
+        idLow = Arrays.copyOf(idLow, cap);
+        noteCodes = Arrays.copyOf(noteCodes, cap);
+    }
+
+    // --- column accessors ---
+
+    public int size() { return size; }
+
+    public long startEpochSecond(int row) { checkRow(row); return startSeconds[row]; }
+    public long endEpochSecond(int row) { checkRow(row); return endSeconds[row]; }
+    public int employeeOrdinal(int row) { checkRow(row); return employeeOrdinals[row]; }
+
+    public Instant start(int row) {
+        checkRow(row);
+        return Instant.ofEpochSecond(startSeconds[row], startNanos == null ? 0 : startNanos[row]);
+    }
+
+    public Instant end(int row) {
+        checkRow(row);
+        return Instant.ofEpochSecond(endSeconds[row], endNanos == null ? 0 : endNanos[row]);
+    }
+
+    public String id(int row) {
+        checkRow(row);
+        int code = idCodes[row];
+        return code == PACKED_UUID ? new UUID(idHigh[row], idLow[row]).toString() : ids.decode(code);
+    }
+
+    public String notes(int row) {
+        checkRow(row);
+        return notes.decode(noteCodes[row]);
+    }
+
+    /** Number of distinct employees registered so far (ordinals are 0..count-1). */
+    public int employeeCount() { return employees.size(); }
+
+    public String employeeId(int ordinal) { return employees.decode(ordinal); }
+
+    /** Ordinal of the employee, or -1 if the store has never seen it. */
+    public int ordinalOf(String employeeId) { return employees.lookup(employeeId); }
+
+    /** Flyweight Shift reading the given row. */
+    public Shift view(int row) {
+        checkRow(row);
+        return new StoredShift(this, row);
+    }
+
+    /** Read-only list of flyweight views over all rows (insertion order). */
+    public List<Shift> views() {
+        return new AbstractList<Shift>() {
+            @Override public Shift get(int index) { return view(index); }
+            @Override public int size() { return size; }
+        };
+    }
+
+    /** Rows of the given employee, in insertion order. O(size). */
+    public List<Shift> shiftsOf(String employeeId) {
+        int ordinal = ordinalOf(employeeId);
+        List<Shift> out = new ArrayList<>();
+        if (ordinal < 0) return out;
+        for (int row = 0; row < size; row++) {
+            if (employeeOrdinals[row] == ordinal) out.add(view(row));
+        }
+        return out;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Shift flyweight: holds only (store, row) and answers the Shift API from the columns.
+     */
+    private static final class StoredShift extends Shift {
+        private final ShiftStore store;
+        private final int row;
+
+        StoredShift(ShiftStore store, int row) {
+            super(store);
+            this.store = store;
+            this.row = row;
+        }
+
+        @Override public String getId() { return store.id(row); }
+        @Override public Instant getStart() { return store.start(row); }
+        @Override public Instant getEnd() { return store.end(row); }
+        @Override public String getNotes() { return store.notes(row); }
+    }
+
+    /**
+     * Minimal string dictionary: value <-> dense int code.
+     */
+    private static final class StringDictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code != null) return code;
+            int next = values.size();
+            values.add(value);
+            codes.put(value, next);
+            return next;
+        }
+
+        int lookup(String value) {
+            Integer code = codes.get(value);
+            return code == null ? -1 : code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Head count per time slot produced by CoverageEngine: slot i covers
+ * [from + i * slot, from + (i + 1) * slot).
+ *
+ * Counts are exposed as int[] copies, overall (total()) and per role (forRole(role)).
+ * gaps(...) turns a curve into runs of consecutive under- or over-staffed slots.
+ */
+public final class StaffingCoverage {
+
+    private final Instant from;
+    private final Duration slot;
+    private final int[] total;
+    private final Map<String, int[]> byRole;
+
+    StaffingCoverage(Instant from, Duration slot, int[] total, Map<String, int[]> byRole) {
+        this.from = from;
+        this.slot = slot;
+        this.total = total;
+        this.byRole = byRole;
+    }
+
+    public Instant getFrom() { return from; }
+    public Duration getSlot() { return slot; }
+    public int slotCount() { return total.length; }
+
+    public Instant slotStart(int index) {
+        return from.plus(slot.multipliedBy(index));
+    }
+
+    /** Head count per slot over all roles. */
+    public int[] total() {
+        return total.clone();
+    }
+
+    /** Roles that had at least one employee in the input. */
+    public Set<String> roles() {
+        return Collections.unmodifiableSet(byRole.keySet());
+    }
+
+    /** Head count per slot for the role (all zeros for an unknown role). */
+    public int[] forRole(String role) {
+        int[] counts = byRole.get(role);
+        return counts == null ? new int[total.length] : counts.clone();
+    }
+
+    /**
+     * Runs of consecutive slots staffed below min or above max, overall (role == null)
+     * or for one role, in time order.
+     */
+    public List<StaffingGap> gaps(String role, int min, int max) {
+        if (min > max) throw new IllegalArgumentException("min must not exceed max");
+        int[] counts = role == null ? total : byRole.getOrDefault(role, new int[total.length]);
+        List<StaffingGap> out = new ArrayList<>();
+        int i = 0;
+        while (i < counts.length) {
+            StaffingGap.Kind kind = kindOf(counts[i], min, max);
+            if (kind == null) { i++; continue; }
+            int start = i;
+            int worst = counts[i];
+            while (i < counts.length && kindOf(counts[i], min, max) == kind) {
+                worst = kind == StaffingGap.Kind.UNDER ? Math.min(worst, counts[i]) : Math.max(worst, counts[i]);
+                i++;
+            }
+            out.add(new StaffingGap(role, kind, slotStart(start), slotStart(i), worst,
+                    kind == StaffingGap.Kind.UNDER ? min : max));
+        }
+        return out;
+    }
+
+    /** Under-staffed runs only (no upper bound). */
+    public List<StaffingGap> gaps(String role, int min) {
+        return gaps(role, min, Integer.MAX_VALUE);
+    }
+
+    private static StaffingGap.Kind kindOf(int count, int min, int max) {
+        if (count < min) return StaffingGap.Kind.UNDER;
+        if (count > max) return StaffingGap.Kind.OVER;
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "StaffingCoverage{" + from + " x" + total.length + " of " + slot + ", roles=" + byRole.keySet() + "}";
+    }
+}
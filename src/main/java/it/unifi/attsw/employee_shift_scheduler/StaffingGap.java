@@ -0,0 +1,43 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Instant;
+
+/**
+ * A run of consecutive slots [from, to) staffed below the minimum (UNDER) or above the
+ * maximum (OVER). worst is the lowest (UNDER) or highest (OVER) head count in the run.
+ * role is null for the overall curve.
+ */
+public final class StaffingGap {
+
+    public enum Kind { UNDER, OVER }
+
+    private final String role;
+    private final Kind kind;
+    private final Instant from;
+    private final Instant to;
+    private final int worst;
+    private final int bound;
+
+    StaffingGap(String role, Kind kind, Instant from, Instant to, int worst, int bound) {
+        this.role = role;
+        this.kind = kind;
+        this.from = from;
+        this.to = to;
+        this.worst = worst;
+        this.bound = bound;
+    }
+
+    public String getRole() { return role; }
+    public Kind getKind() { return kind; }
+    public Instant getFrom() { return from; }
+    public Instant getTo() { return to; }
+    public int getWorst() { return worst; }
+    /** The minimum (UNDER) or maximum (OVER) that was violated. */
+    public int getBound() { return bound; }
+
+    @Override
+    public String toString() {
+        return "StaffingGap{" + (role == null ? "all" : role) + " " + kind + " " + from + "->" + to
+                + " worst=" + worst + " bound=" + bound + "}";
+    }
+}
@@ -0,0 +1,49 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUIDv7-style id generator (RFC 9562 layout):
+ * 48-bit unix millis | version 7 | 12-bit sequence | variant | 62 random bits.
+ *
+ * - Ids sort by creation time (useful for storage locality and indexes).
+ * - Randomness comes from ThreadLocalRandom and the sequence is per thread, so
+ *   parallel generation does not contend on a shared SecureRandom.
+ * - Within one thread ids are strictly increasing, also inside the same millisecond.
+ */
+final class TimeOrderedShiftIdGenerator implements ShiftIdGenerator {
+
+    static final TimeOrderedShiftIdGenerator INSTANCE = new TimeOrderedShiftIdGenerator();
+
+    private static final long SEQUENCE_MASK = 0xFFFL;
+
+    // per thread: [0] = last millis used, [1] = sequence within that millis
+    private static final ThreadLocal<long[]> STATE = ThreadLocal.withInitial(() -> new long[2]);
+
+    private TimeOrderedShiftIdGenerator() {
+    }
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    UUID nextUuid() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long[] state = STATE.get();
+        long millis = System.currentTimeMillis();
+        if (millis > state[0]) {
+            state[0] = millis;
+            // start low in the sequence space so a burst has room to grow
+            state[1] = rnd.nextLong(SEQUENCE_MASK >> 1);
+        } else if (++state[1] > SEQUENCE_MASK) {
+            // sequence exhausted (or clock went backwards): borrow the next millisecond
+            state[0]++;
+            state[1] = 0;
+        }
+        long msb = (state[0] << 16) | 0x7000L | state[1];
+        long lsb = (rnd.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
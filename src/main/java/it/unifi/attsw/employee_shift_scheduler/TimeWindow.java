@@ -0,0 +1,48 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Half-open time window [start, end).
+ */
+public final class TimeWindow {
+
+    private final Instant start;
+    private final Instant end;
+
+    public TimeWindow(Instant start, Instant end) {
+        if (start == null || end == null) throw new IllegalArgumentException("start/end required");
+        if (!end.isAfter(start)) throw new IllegalArgumentException("end must be after start");
+        this.start = start;
+        this.end = end;
+    }
+
+    public static TimeWindow of(Instant start, Duration length) {
+        return new TimeWindow(start, start.plus(length));
+    }
+
+    public Instant getStart() { return start; }
+    public Instant getEnd() { return end; }
+
+    public Duration duration() { return Duration.between(start, end); }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimeWindow)) return false;
+        TimeWindow w = (TimeWindow) o;
+        return start.equals(w.start) && end.equals(w.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + ")";
+    }
+}
@@ -0,0 +1,190 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache with W-TinyLFU eviction (used by CachingEmployeeRepository, which also
+ * handles expiry).
+ *
+ * - New entries enter a small LRU window (1% of the capacity). Entries leaving the window
+ *   compete with the LRU victim of the main space: a count-min sketch estimates how often
+ *   each key was requested recently, and the less popular one is evicted. One-off reads
+ *   (a scan over all employees) therefore cannot flush the hot entries.
+ * - The main space is a segmented LRU: a hit in probation promotes the entry to the
+ *   protected segment (80% of the main space), whose LRU entries are demoted back.
+ * - All operations are O(1) and synchronized; the cache only fronts round trips to a
+ *   database, so a single lock is not the bottleneck.
+ */
+final class TinyLfuCache<K, V> {
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;
+
+    // access-ordered: the first entry is the least recently used
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long evictions;
+
+    TinyLfuCache(int maximumSize) {
+        if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive");
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = maximumSize - windowCapacity;
+        this.protectedCapacity = (int) (mainCapacity * 0.8);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /** Cached value, or null; counts as a request for the key either way. */
+    synchronized V get(K key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        if (value == null) value = protectedSegment.get(key);
+        if (value == null) {
+            value = probation.remove(key);
+            if (value != null) promote(key, value);
+        }
+        return value;
+    }
+
+    synchronized void put(K key, V value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+        } else if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+        } else if (probation.containsKey(key)) {
+            probation.put(key, value);
+        } else {
+            sketch.increment(key);
+            window.put(key, value);
+            if (window.size() > windowCapacity) {
+                Map.Entry<K, V> candidate = pollEldest(window);
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+    }
+
+    synchronized void invalidate(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    /** Copy of all entries; does not count as requests. */
+    synchronized Map<K, V> entries() {
+        Map<K, V> out = new LinkedHashMap<>(window);
+        out.putAll(probation);
+        out.putAll(protectedSegment);
+        return out;
+    }
+
+    synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    /** Entries dropped because the cache was full. */
+    synchronized long evictionCount() {
+        return evictions;
+    }
+
+    // --- policy ---
+
+    private void promote(K key, V value) {
+        protectedSegment.put(key, value);
+        if (protectedSegment.size() > protectedCapacity) {
+            Map.Entry<K, V> demoted = pollEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    /** A window evictee enters the main space if it is more popular than the main victim. */
+    private void admit(K candidate, V value) {
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidate, value);
+            return;
+        }
+        evictions++;
+        LinkedHashMap<K, V> victims = probation.isEmpty() ? protectedSegment : probation;
+        if (victims.isEmpty()) return;   // no main space at all (maximumSize below 2)
+        K victim = victims.keySet().iterator().next();
+        if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+            victims.remove(victim);
+            probation.put(candidate, value);
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> pollEldest(LinkedHashMap<K, V> map) {
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        Map.Entry<K, V> first = it.next();
+        Map.Entry<K, V> eldest = Map.entry(first.getKey(), first.getValue());
+        it.remove();
+        return eldest;
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters (4 rows). Counters are halved every 10 x capacity
+     * increments, so the estimate follows recent popularity.
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] rows;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, Math.min(1 << 24, capacity * 2)) - 1) << 1;
+            this.rows = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = Math.max(10, 10 * capacity);
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int r = 0; r < rows.length; r++) {
+                int i = index(hash, r);
+                if (rows[r][i] < MAX_COUNT) {
+                    rows[r][i]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int r = 0; r < rows.length; r++) {
+                min = Math.min(min, rows[r][index(hash, r)]);
+            }
+            return min;
+        }
+
+        private void reset() {
+            for (byte[] row : rows) {
+                for (int i = 0; i < row.length; i++) row[i] >>= 1;
+            }
+            additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        private static int spread(int h) {
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * ISO-8601 week-based year and week number (e.g. 2025-W47).
+ * Weeks start on Monday; week 1 is the week containing the first Thursday of the year.
+ */
+public final class YearWeek implements Comparable<YearWeek> {
+
+    private final int year;
+    private final int week;
+
+    private YearWeek(int year, int week) {
+        this.year = year;
+        this.week = week;
+    }
+
+    public static YearWeek of(int year, int week) {
+        LocalDate probe = LocalDate.of(year, 6, 1);
+        long maxWeek = probe.range(IsoFields.WEEK_OF_WEEK_BASED_YEAR).getMaximum();
+        if (week < 1 || week > maxWeek) {
+            throw new IllegalArgumentException("week out of range for " + year + ": " + week);
+        }
+        return new YearWeek(year, week);
+    }
+
+    public static YearWeek from(LocalDate date) {
+        Objects.requireNonNull(date, "date");
+        return new YearWeek(date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    public static YearWeek from(Instant instant, ZoneId zone) {
+        Objects.requireNonNull(instant, "instant");
+        Objects.requireNonNull(zone, "zone");
+        return from(instant.atZone(zone).toLocalDate());
+    }
+
+    public int getYear() { return year; }
+    public int getWeek() { return week; }
+
+    /** Monday of this week. */
+    public LocalDate atMonday() {
+        return LocalDate.of(year, 1, 4)
+                .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, week)
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /** First instant of this week (Monday 00:00) in the given zone. */
+    public Instant startIn(ZoneId zone) {
+        return atMonday().atStartOfDay(zone).toInstant();
+    }
+
+    public YearWeek plusWeeks(long weeks) {
+        return from(atMonday().plusWeeks(weeks));
+    }
+
+    /**
+     * Split [start, end) on week boundaries of the given zone and report the minutes
+     * falling into each week, in chronological order.
+     */
+    public static void forEachWeek(Instant start, Instant end, ZoneId zone, ObjLongConsumer<YearWeek> minutesSink) {
+        Instant cursor = start;
+        while (cursor.isBefore(end)) {
+            YearWeek w = from(cursor, zone);
+            Instant weekEnd = w.plusWeeks(1).startIn(zone);
+            Instant segmentEnd = weekEnd.isBefore(end) ? weekEnd : end;
+            minutesSink.accept(w, Duration.between(cursor, segmentEnd).toMinutes());
+            cursor = segmentEnd;
+        }
+    }
+
+    @Override
+    public int compareTo(YearWeek o) {
+        int c = Integer.compare(year, o.year);
+        return c != 0 ? c : Integer.compare(week, o.week);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YearWeek)) return false;
+        YearWeek other = (YearWeek) o;
+        return year == other.year && week == other.week;
+    }
+
+    @Override
+    public int hashCode() {
+        return year * 64 + week;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%04d-W%02d", year, week);
+    }
+}
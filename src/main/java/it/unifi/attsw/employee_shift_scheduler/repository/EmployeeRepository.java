@@ -1,8 +1,22 @@
 package it.unifi.attsw.employee_shift_scheduler.repository;
 
 import it.unifi.attsw.employee_shift_scheduler.Employee;
+import it.unifi.attsw.employee_shift_scheduler.EmployeeSort;
+import it.unifi.attsw.employee_shift_scheduler.EmployeeSummary;
+import it.unifi.attsw.employee_shift_scheduler.Shift;
+import it.unifi.attsw.employee_shift_scheduler.ShiftStore;
+import it.unifi.attsw.employee_shift_scheduler.YearWeek;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EmployeeRepository {
     /**
@@ -24,4 +38,154 @@ public interface EmployeeRepository {
      * Delete employee by id. Implementations may throw if error occurs.
      */
     void deleteById(String id);
+
+    /**
+     * All employees as a lazily evaluated stream, in findAll order. Implementations backed by
+     * a cursor fetch employees batch by batch while the stream is consumed, so memory does
+     * not grow with the collection; close the stream (try-with-resources) to release the
+     * cursor early. The default streams findAll().
+     */
+    default Stream<Employee> streamAll() {
+        return findAll().stream();
+    }
+
+    /**
+     * Like streamAll, restricted to the employees with the given role.
+     */
+    default Stream<Employee> streamByRole(String role) {
+        return streamAll().filter(e -> e.getRole().equals(role));
+    }
+
+    /**
+     * Persist all given employees (insert or replace each). Returns the persisted instances
+     * in input order. Implementations should batch round trips; the default saves one by one.
+     */
+    default List<Employee> saveAll(Collection<Employee> employees) {
+        List<Employee> out = new ArrayList<>(employees.size());
+        for (Employee e : employees) {
+            out.add(save(e));
+        }
+        return out;
+    }
+
+    /**
+     * Find the employees with the given ids, in the order of the ids; unknown ids are skipped.
+     */
+    default List<Employee> findAllById(Collection<String> ids) {
+        List<Employee> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(out::add);
+        }
+        return out;
+    }
+
+    /**
+     * Stored version of each given employee (employeeId -> Employee.getVersion()); unknown
+     * ids are left out. Versions change on every write, so comparing them tells whether a
+     * copy held elsewhere is still current. Implementations should read the versions only;
+     * the default loads the employees (findAllById).
+     */
+    default Map<String, Long> findVersions(Collection<String> ids) {
+        Map<String, Long> out = new HashMap<>();
+        for (Employee e : findAllById(ids)) {
+            out.put(e.getEmployeeId(), e.getVersion());
+        }
+        return out;
+    }
+
+    /**
+     * Delete all employees with the given ids (unknown ids are ignored).
+     */
+    default void deleteAllById(Collection<String> ids) {
+        for (String id : ids) {
+            deleteById(id);
+        }
+    }
+
+    /**
+     * Save the employee only if the stored one still has employee.getVersion() (for version
+     * 0: only if none is stored), i.e. nobody wrote it since it was read. Returns false and
+     * writes nothing otherwise; callers then read the employee again and retry. The default
+     * checks findVersions before save, which is not atomic; implementations should make the
+     * check part of the write.
+     */
+    default boolean saveIfUnchanged(Employee employee) {
+        Long stored = findVersions(List.of(employee.getEmployeeId())).get(employee.getEmployeeId());
+        if ((stored == null ? 0 : stored) != employee.getVersion()) return false;
+        save(employee);
+        return true;
+    }
+
+    /**
+     * Atomically add the shift to the stored employee if the Employee rules still accept it,
+     * and return the updated employee. Empty means nothing was written: the employee is
+     * unknown, the shift is rejected, or the repository cannot decide atomically; callers
+     * then fall back to findById / Employee.addShift / save. The default always returns empty.
+     */
+    default Optional<Employee> addShiftIfNoConflict(String employeeId, Shift shift) {
+        return Optional.empty();
+    }
+
+    /**
+     * Summaries of all employees (findAll order) with the hours of the current ISO week.
+     */
+    default List<EmployeeSummary> findAllSummaries() {
+        return findAllSummaries(YearWeek.from(LocalDate.now()));
+    }
+
+    /**
+     * Summaries of all employees (findAll order) with the hours of the given ISO week.
+     * Implementations should not load the shifts; the default summarizes findAll().
+     */
+    default List<EmployeeSummary> findAllSummaries(YearWeek week) {
+        List<Employee> all = findAll();
+        List<EmployeeSummary> out = new ArrayList<>(all.size());
+        for (Employee e : all) {
+            out.add(EmployeeSummary.of(e, week));
+        }
+        return out;
+    }
+
+    /**
+     * One page of the summary listing (current ISO week), keyset-paginated on employeeId:
+     * up to `limit` employees strictly after `afterEmployeeId` in the given order, or from
+     * the start when it is null. A page shorter than `limit` is the last one.
+     * The default sorts findAllSummaries(); implementations should seek on an index.
+     */
+    default List<EmployeeSummary> findPage(String afterEmployeeId, int limit, EmployeeSort sort) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive");
+        Comparator<String> order = sort == EmployeeSort.ID_DESCENDING ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        return findAllSummaries().stream()
+                .filter(s -> afterEmployeeId == null || order.compare(s.getEmployeeId(), afterEmployeeId) > 0)
+                .sorted(Comparator.comparing(EmployeeSummary::getEmployeeId, order))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Employees with at least one shift (concrete or recurring occurrence) overlapping
+     * [from, to), in findAll order. Implementations may trim each employee's concrete shifts
+     * to the overlapping ones, so read them with shiftsBetween and do not save the result
+     * after replacing its shifts. The default filters findAll().
+     */
+    default List<Employee> findEmployeesWithShiftsBetween(Instant from, Instant to) {
+        List<Employee> out = new ArrayList<>();
+        for (Employee e : findAll()) {
+            if (!e.shiftsBetween(from, to).isEmpty()) out.add(e);
+        }
+        return out;
+    }
+
+    /**
+     * Load every scheduled shift into a compact columnar ShiftStore
+     * (for company-wide computations that do not need Employee objects).
+     * The default walks streamAll, so each Employee can be dropped once its shifts are appended.
+     */
+    default ShiftStore loadShiftStore() {
+        ShiftStore store = new ShiftStore();
+        try (Stream<Employee> all = streamAll()) {
+            all.forEach(store::addAll);
+        }
+        return store;
+    }
 }
@@ -2,6 +2,8 @@ package it.unifi.attsw.employee_shift_scheduler_gui;
 
 import it.unifi.attsw.employee_shift_scheduler.Controller;
 import it.unifi.attsw.employee_shift_scheduler.Employee;
+import it.unifi.attsw.employee_shift_scheduler.EmployeeSort;
+import it.unifi.attsw.employee_shift_scheduler.EmployeeSummary;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,12 +14,19 @@ import java.util.function.Consumer;
 /**
  * Small panel that lists employees and notifies listener when selection changes.
  * Designed to be testable (component names).
+ * Lists EmployeeSummary rows (no shifts are loaded); the full employee is loaded only
+ * for the selected row.
+ * Rows are fetched one keyset page at a time (Controller.findPage, ordered by id): the
+ * first page on refresh, the next one when the list is scrolled near its end.
  */
 public class EmployeeListPanel extends JPanel {
 
+    static final int PAGE_SIZE = 50;
+
     private final Controller controller;
-    private final DefaultListModel<Employee> listModel = new DefaultListModel<>();
-    private final JList<Employee> list = new JList<>(listModel);
+    private final DefaultListModel<EmployeeSummary> listModel = new DefaultListModel<>();
+    private final JList<EmployeeSummary> list = new JList<>(listModel);
+    private boolean lastPageLoaded;
 
     public EmployeeListPanel(Controller controller) {
         this.controller = controller;
@@ -32,6 +41,12 @@ public class EmployeeListPanel extends JPanel {
         list.setName("employeeList");
         JScrollPane sp = new JScrollPane(list);
         sp.setPreferredSize(new Dimension(220, 300));
+        sp.getVerticalScrollBar().addAdjustmentListener(e -> {
+            BoundedRangeModel m = sp.getVerticalScrollBar().getModel();
+            if (!e.getValueIsAdjusting() && m.getValue() + m.getExtent() >= m.getMaximum() - 20) {
+                loadNextPage();
+            }
+        });
         add(sp, BorderLayout.CENTER);
 
         // load initial employees (if any)
@@ -39,31 +54,50 @@ public class EmployeeListPanel extends JPanel {
     }
 
     public void refresh() {
-        List<Employee> all = controller.findAllEmployees();
         listModel.clear();
-        all.forEach(listModel::addElement);
+        lastPageLoaded = false;
+        loadNextPage();
     }
 
-    public Optional<Employee> getSelectedEmployee() {
+    /** Append the page after the last loaded row; returns false once everything is loaded. */
+    boolean loadNextPage() {
+        if (lastPageLoaded) return false;
+        String after = listModel.isEmpty() ? null : listModel.lastElement().getEmployeeId();
+        List<EmployeeSummary> page = controller.findPage(after, PAGE_SIZE, EmployeeSort.ID_ASCENDING);
+        page.forEach(listModel::addElement);
+        lastPageLoaded = page.size() < PAGE_SIZE;
+        return !page.isEmpty();
+    }
+
+    public Optional<EmployeeSummary> getSelectedSummary() {
         return Optional.ofNullable(list.getSelectedValue());
     }
 
+    public Optional<Employee> getSelectedEmployee() {
+        return getSelectedSummary().flatMap(s -> controller.findEmployee(s.getEmployeeId()));
+    }
+
     public void onSelection(Consumer<Employee> consumer) {
         list.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                Employee sel = list.getSelectedValue();
-                if (sel != null) consumer.accept(sel);
+                EmployeeSummary sel = list.getSelectedValue();
+                if (sel != null) controller.findEmployee(sel.getEmployeeId()).ifPresent(consumer);
             }
         });
     }
 
     public void selectEmployeeById(String id) {
-        for (int i = 0; i < listModel.size(); i++) {
-            if (listModel.get(i).getEmployeeId().equals(id)) {
-                list.setSelectedIndex(i);
-                list.ensureIndexIsVisible(i);
-                return;
+        int from = 0;
+        do {
+            for (int i = from; i < listModel.size(); i++) {
+                if (listModel.get(i).getEmployeeId().equals(id)) {
+                    list.setSelectedIndex(i);
+                    list.ensureIndexIsVisible(i);
+                    return;
+                }
             }
-        }
+            from = listModel.size();
+            // rows are ordered by id: once past it, further pages cannot contain it
+        } while ((listModel.isEmpty() || listModel.lastElement().getEmployeeId().compareTo(id) < 0) && loadNextPage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    private static final Instant MONDAY = Instant.parse("2025-03-03T00:00:00Z");
+
+    private final AssignmentSolver solver = new AssignmentSolver(new ForkJoinPool(2), Duration.ofMillis(300), 7L);
+
+    private static Shift shift(String id, int day, int hour, int hours) {
+        Instant start = MONDAY.plus(Duration.ofDays(day)).plus(Duration.ofHours(hour));
+        return new Shift(id, start, start.plus(Duration.ofHours(hours)));
+    }
+
+    private static Employee employee(String id) {
+        return new Employee(id, id, "cashier", List.of(), ZoneOffset.UTC);
+    }
+
+    @Test
+    void solve_shouldAssignOverlappingShiftsToDifferentEmployees() {
+        List<Employee> staff = List.of(employee("A"), employee("B"));
+        List<Shift> open = List.of(shift("s1", 0, 9, 4), shift("s2", 0, 10, 4), shift("s3", 1, 9, 4));
+
+        AssignmentResult result = solver.solve(open, staff);
+
+        assertEquals(3, result.assignedCount());
+        assertTrue(result.getUnassigned().isEmpty());
+        assertEquals(2, result.getAssignments().size());
+    }
+
+    @Test
+    void solve_shouldRespectExistingShiftsAndWeeklyLimit() {
+        Employee busy = employee("BUSY");
+        for (int d = 0; d < 5; d++) busy.addShift(shift("b" + d, d, 8, 8));   // already at 40h
+        List<Shift> open = List.of(shift("x", 5, 9, 2), shift("y", 5, 10, 2));
+
+        AssignmentResult result = solver.solve(open, List.of(busy, employee("FREE")));
+
+        assertEquals(List.of(shift("x", 5, 9, 2)), result.getAssignments().get("FREE"));
+        assertEquals(List.of(shift("y", 5, 10, 2)), result.getUnassigned());
+        assertNull(result.getAssignments().get("BUSY"));
+    }
+
+    @Test
+    void solve_shouldProduceAssignmentsEveryEmployeeAccepts() {
+        Random rnd = new Random(3);
+        List<Shift> open = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            open.add(shift("o" + i, rnd.nextInt(7), rnd.nextInt(16), 2 + rnd.nextInt(7)));
+        }
+        List<Employee> staff = new ArrayList<>();
+        for (int e = 0; e < 100; e++) staff.add(employee("E" + e));
+
+        AssignmentResult result = solver.solve(open, staff);
+
+        assertEquals(open.size(), result.assignedCount() + result.getUnassigned().size());
+        assertEquals(open.size(), result.assignedCount(), result.toString());
+        for (Map.Entry<String, List<Shift>> e : result.getAssignments().entrySet()) {
+            Employee target = staff.stream().filter(x -> x.getEmployeeId().equals(e.getKey())).findFirst().orElseThrow();
+            assertDoesNotThrow(() -> target.addShifts(e.getValue()));
+        }
+    }
+}
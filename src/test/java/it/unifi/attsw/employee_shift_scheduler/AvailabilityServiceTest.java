@@ -0,0 +1,83 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityServiceTest {
+
+    private InMemoryEmployeeRepository repo;
+    private AvailabilityService availability;
+    private Employee alice;
+    private Employee bob;
+
+    private static Instant at(String time) {
+        return Instant.parse("2025-03-03T" + time + ":00Z");
+    }
+
+    @BeforeEach
+    void setUp() {
+        repo = new InMemoryEmployeeRepository();
+        availability = new AvailabilityService(repo);
+        alice = new Employee("Alice", "A", "cashier", List.of(), ZoneOffset.UTC);
+        bob = new Employee("Bob", "B", "cashier", List.of(), ZoneOffset.UTC);
+        alice.addShift(new Shift("a1", at("09:00"), at("12:00")));
+        bob.addShift(new Shift("b1", at("13:00"), at("15:10")));
+        repo.save(alice);
+        repo.save(bob);
+    }
+
+    @Test
+    void findFreeSlots_shouldReturnFreeRunsOfAtLeastTheDuration() {
+        List<TimeWindow> free = availability.findFreeSlots("A", Duration.ofHours(2), new TimeWindow(at("08:00"), at("16:00")));
+
+        assertEquals(List.of(new TimeWindow(at("12:00"), at("16:00"))), free);
+    }
+
+    @Test
+    void findCommonFreeSlots_shouldCombineEmployeesAndRoundBusySlotsUp() {
+        List<TimeWindow> free = availability.findCommonFreeSlots(List.of("A", "B"), Duration.ofMinutes(30),
+                new TimeWindow(at("07:50"), at("18:00")));
+
+        assertEquals(List.of(
+                new TimeWindow(at("08:00"), at("09:00")),
+                new TimeWindow(at("12:00"), at("13:00")),
+                new TimeWindow(at("15:15"), at("18:00"))), free);
+    }
+
+    @Test
+    void findEmployeesFreeBetween_andAreAllFree_shouldUseWholeWindow() {
+        assertEquals(List.of(bob), availability.findEmployeesFreeBetween(at("11:45"), at("12:30")));
+        assertEquals(List.of(alice, bob), availability.findEmployeesFreeBetween(at("12:00"), at("13:00")));
+        assertTrue(availability.areAllFree(List.of("A", "B"), at("12:00"), at("13:00")));
+        assertFalse(availability.areAllFree(List.of("A", "B"), at("12:00"), at("13:01")));
+    }
+
+    @Test
+    void occupancy_shouldBeMaintainedIncrementallyIncludingSharedSlotsAndRecurring() {
+        Employee e = new Employee("Carl", "C", "cook", List.of(), ZoneOffset.UTC);
+        e.addShift(new Shift("c1", at("09:00"), at("09:10")));
+        e.addShift(new Shift("c2", at("09:10"), at("09:20")));
+        long week = OccupancyBitmap.weekOf(at("09:00"));
+        long slot = OccupancyBitmap.slotOf(at("09:00")) - week * OccupancyBitmap.SLOTS_PER_WEEK;
+
+        e.removeShiftById("c1");
+        assertEquals(3L << slot, e.occupancyWords(week)[0]);   // slot 09:00 still used by c2, 09:15 too
+        e.removeShiftById("c2");
+        assertArrayEquals(new long[OccupancyBitmap.WORDS_PER_WEEK], e.occupancyWords(week));
+
+        e.addRecurringShift(RecurringShift.builder("R", EnumSet.of(DayOfWeek.MONDAY), LocalTime.of(9, 0),
+                Duration.ofMinutes(30), LocalDate.of(2025, 1, 6)).zone(ZoneOffset.UTC).build());
+        assertEquals(3L << slot, e.occupancyWords(week)[0]);
+    }
+}
@@ -0,0 +1,228 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingEmployeeRepositoryTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private InMemoryEmployeeRepository delegate;
+    private CachingEmployeeRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        delegate = spy(new InMemoryEmployeeRepository());
+        repo = new CachingEmployeeRepository(delegate, 100, Duration.ofMinutes(5), nanos::get);
+    }
+
+    @Test
+    void findById_shouldServeRepeatedReadsFromCache() {
+        delegate.save(new Employee("Ali", "E1", "cashier"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Ali", repo.findById("E1").orElseThrow().getName());
+        }
+
+        verify(delegate, times(1)).findById("E1");
+        assertEquals(4, repo.stats().getHits());
+        assertEquals(1, repo.stats().getMisses());
+    }
+
+    @Test
+    void findById_shouldCacheMissingIds() {
+        assertTrue(repo.findById("NOPE").isEmpty());
+        assertTrue(repo.findById("NOPE").isEmpty());
+
+        verify(delegate, times(1)).findById("NOPE");
+    }
+
+    @Test
+    void findById_shouldReloadAfterTtl() {
+        delegate.save(new Employee("Ali", "E1", "cashier"));
+        repo.findById("E1");
+
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        repo.findById("E1");
+
+        verify(delegate, times(2)).findById("E1");
+    }
+
+    @Test
+    void saveAndDelete_shouldWriteThroughWithoutReloading() {
+        repo.save(new Employee("Ali", "E1", "cashier"));
+        assertEquals("Ali", repo.findById("E1").orElseThrow().getName());
+
+        repo.deleteById("E1");
+        assertTrue(repo.findById("E1").isEmpty());
+        assertTrue(delegate.findById("E1").isEmpty());
+
+        verify(delegate, times(1)).findById("E1");   // only the direct check above
+    }
+
+    @Test
+    void save_shouldDropEntryWhenDelegateFails() {
+        repo.save(new Employee("Ali", "E1", "cashier"));
+        doThrow(new IllegalStateException("down")).when(delegate).save(any());
+
+        assertThrows(IllegalStateException.class, () -> repo.save(new Employee("Bob", "E1", "cashier")));
+        assertEquals("Ali", repo.findById("E1").orElseThrow().getName());
+
+        verify(delegate, times(1)).findById("E1");
+    }
+
+    @Test
+    void findById_shouldReturnCopies() {
+        repo.save(new Employee("Ali", "E1", "cashier"));
+        Employee first = repo.findById("E1").orElseThrow();
+        first.addShift(new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+
+        assertTrue(repo.findById("E1").orElseThrow().getScheduledShifts().isEmpty());
+    }
+
+    @Test
+    void addShiftIfNoConflict_shouldUpdateCachedEmployee() {
+        repo.save(new Employee("Ali", "E1", "cashier"));
+        Shift s = new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z"));
+
+        assertTrue(repo.addShiftIfNoConflict("E1", s).isPresent());
+
+        assertEquals(List.of(s), repo.findById("E1").orElseThrow().getScheduledShifts());
+        verify(delegate, never()).findById(anyString());
+    }
+
+    @Test
+    void findAllById_shouldLoadOnlyUncachedIds() {
+        repo.save(new Employee("Ali", "E1", "cashier"));
+        delegate.save(new Employee("Sara", "E2", "manager"));
+
+        List<Employee> found = repo.findAllById(List.of("E2", "E1", "E3"));
+
+        assertEquals(List.of("E2", "E1"), found.stream().map(Employee::getEmployeeId).toList());
+        verify(delegate).findAllById(List.of("E2", "E3"));
+        assertEquals(Optional.empty(), repo.findById("E3"));
+        verify(delegate, never()).findById(anyString());
+    }
+
+    @Test
+    void eviction_shouldKeepFrequentlyReadEmployeesDuringScan() {
+        for (int i = 0; i < 500; i++) delegate.save(new Employee("N" + i, "E" + i, "R"));
+        for (int i = 0; i < 10; i++) repo.findById("E0");
+
+        for (int i = 1; i < 500; i++) repo.findById("E" + i);
+        repo.findById("E0");
+
+        verify(delegate, times(1)).findById("E0");
+        assertTrue(repo.stats().getEvictions() > 0);
+        assertTrue(repo.cachedCount() <= 100);
+    }
+
+    @Test
+    void findById_whenRevalidating_shouldReuseUnchangedEntryAfterVersionCheck() {
+        repo.setRevalidating(true);
+        delegate.save(new Employee("Ali", "E1", "cashier"));
+        repo.findById("E1");
+
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertEquals("Ali", repo.findById("E1").orElseThrow().getName());
+        assertEquals("Ali", repo.findById("E1").orElseThrow().getName());
+
+        verify(delegate, times(1)).findById("E1");
+        verify(delegate, times(1)).findVersions(List.of("E1"));
+        assertEquals(1, repo.stats().getRevalidations());
+        assertEquals(1, repo.stats().getHits());
+    }
+
+    @Test
+    void findById_whenRevalidating_shouldReloadEmployeesChangedElsewhere() {
+        repo.setRevalidating(true);
+        delegate.save(new Employee("Ali", "E1", "cashier"));
+        repo.findById("E1");
+
+        delegate.save(new Employee("Ali B.", "E1", "cashier"));   // another instance writes
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        assertEquals("Ali B.", repo.findById("E1").orElseThrow().getName());
+        verify(delegate, times(2)).findById("E1");
+    }
+
+    @Test
+    void findAllById_whenRevalidating_shouldCheckVersionsInOneCallAndLoadOnlyChanged() {
+        repo.setRevalidating(true);
+        delegate.save(new Employee("Ali", "E1", "cashier"));
+        delegate.save(new Employee("Sara", "E2", "manager"));
+        repo.findAllById(List.of("E1", "E2"));
+
+        delegate.save(new Employee("Sara B.", "E2", "manager"));
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        List<Employee> found = repo.findAllById(List.of("E1", "E2"));
+
+        assertEquals(List.of("Ali", "Sara B."), found.stream().map(Employee::getName).toList());
+        verify(delegate, times(1)).findVersions(any());
+        verify(delegate).findAllById(List.of("E2"));
+        assertEquals(1, repo.stats().getRevalidations());
+    }
+
+    @Test
+    void revalidate_shouldReloadOnlyChangedOrDeletedEntries() {
+        delegate.save(new Employee("Ali", "E1", "cashier"));
+        delegate.save(new Employee("Sara", "E2", "manager"));
+        delegate.save(new Employee("Bob", "E3", "cook"));
+        repo.findAllById(List.of("E1", "E2", "E3"));
+
+        delegate.save(new Employee("Sara B.", "E2", "manager"));
+        delegate.deleteById("E3");
+
+        assertEquals(2, repo.revalidate());
+        assertEquals("Sara B.", repo.findById("E2").orElseThrow().getName());
+        assertTrue(repo.findById("E3").isEmpty());
+        verify(delegate).findAllById(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("E2", "E3"))));
+        verify(delegate, never()).findById(anyString());
+    }
+
+    @Test
+    void saveIfUnchanged_shouldCacheWrittenEmployeeAndDropRejectedOne() {
+        repo.save(new Employee("Ali", "E1", "cashier"));
+        Employee stale = repo.findById("E1").orElseThrow();
+        delegate.save(new Employee("Ali B.", "E1", "cashier"));   // another instance writes
+
+        stale.addShift(new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        assertFalse(repo.saveIfUnchanged(stale));
+        Employee fresh = repo.findById("E1").orElseThrow();
+        assertEquals("Ali B.", fresh.getName());
+
+        fresh.addShift(new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        assertTrue(repo.saveIfUnchanged(fresh));
+        assertEquals(1, repo.findById("E1").orElseThrow().getScheduledShifts().size());
+        verify(delegate, times(1)).findById("E1");
+    }
+
+    @Test
+    void findById_ofLazilyLoadedEmployee_shouldDecodeShiftsOnceForAllCopies() {
+        Shift s = new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z"));
+        AtomicInteger decodes = new AtomicInteger();
+        Employee lazy = new Employee("Lazy", "L1", "cashier", ZoneOffset.UTC, () -> {
+            decodes.incrementAndGet();
+            return ShiftSchedule.of(ZoneOffset.UTC, List.of(s));
+        });
+        doReturn(Optional.of(lazy)).when(delegate).findById("L1");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of(s), repo.findById("L1").orElseThrow().getScheduledShifts());
+        }
+
+        assertEquals(1, decodes.get());
+        verify(delegate, times(1)).findById("L1");
+    }
+}
@@ -3,6 +3,7 @@ package it.unifi.attsw.employee_shift_scheduler;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -149,4 +150,34 @@ class ControllerTest {
         verify(view).showError(contains("not found"));
         verify(view, never()).shiftRemovedFromEmployee(any(), anyString());
     }
+
+    @Test
+    void listShiftsBetween_delegatesToService() {
+        Instant from = Instant.parse("2025-01-06T00:00:00Z");
+        Instant to = Instant.parse("2025-01-13T00:00:00Z");
+        Shift s = new Shift("S1", LocalDateTime.of(2025,1,10,9,0), LocalDateTime.of(2025,1,10,13,0), "");
+        when(service.shiftsBetween("E1", from, to)).thenReturn(List.of(s));
+
+        List<Shift> result = controller.listShiftsBetween("E1", from, to);
+
+        assertEquals(List.of(s), result);
+        verify(view, never()).showError(anyString());
+    }
+
+    @Test
+    void findAllSummaries_delegatesWithoutLoadingEmployees() {
+        EmployeeSummary s = new EmployeeSummary("E1", "Alice", "cashier", 3, YearWeek.of(2025, 45), 480);
+        when(service.findAllSummaries()).thenReturn(List.of(s));
+
+        assertEquals(List.of(s), controller.findAllSummaries());
+        verify(service, never()).findAll();
+    }
+
+    @Test
+    void findPage_delegatesToService() {
+        EmployeeSummary s = new EmployeeSummary("E2", "Bob", "cook", 0, YearWeek.of(2025, 45), 0);
+        when(service.findPage("E1", 10, EmployeeSort.ID_ASCENDING)).thenReturn(List.of(s));
+
+        assertEquals(List.of(s), controller.findPage("E1", 10, EmployeeSort.ID_ASCENDING));
+    }
 }
@@ -0,0 +1,123 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageEngineTest {
+
+    private static final Instant MONDAY = Instant.parse("2025-03-03T00:00:00Z");
+    private static final Duration QUARTER = Duration.ofMinutes(15);
+
+    private static Employee employee(String id, String role, Shift... shifts) {
+        return new Employee(id, id, role, List.of(shifts), ZoneOffset.UTC);
+    }
+
+    private static Shift shift(String id, String start, String end) {
+        return new Shift(id, Instant.parse(start), Instant.parse(end));
+    }
+
+    @Test
+    void compute_shouldCountPeoplePerSlotOverallAndPerRole() {
+        List<Employee> staff = List.of(
+                employee("A", "cashier", shift("a1", "2025-03-03T09:00:00Z", "2025-03-03T10:00:00Z")),
+                employee("B", "cashier", shift("b1", "2025-03-03T09:30:00Z", "2025-03-03T10:10:00Z")),
+                employee("C", "manager", shift("c1", "2025-03-03T08:00:00Z", "2025-03-03T11:00:00Z")),
+                employee("D", "manager"));
+
+        StaffingCoverage c = new CoverageEngine().compute(staff, Instant.parse("2025-03-03T09:00:00Z"),
+                Instant.parse("2025-03-03T10:30:00Z"), QUARTER);
+
+        assertArrayEquals(new int[] {2, 2, 3, 3, 2, 1}, c.total());
+        assertArrayEquals(new int[] {1, 1, 2, 2, 1, 0}, c.forRole("cashier"));
+        assertArrayEquals(new int[] {1, 1, 1, 1, 1, 1}, c.forRole("manager"));
+        assertArrayEquals(new int[6], c.forRole("chef"));
+    }
+
+    @Test
+    void compute_shouldCountAPersonOnceWhenTheirShiftsShareASlot() {
+        List<Employee> staff = List.of(
+                employee("A", "cashier",
+                        shift("a1", "2025-03-03T08:00:00Z", "2025-03-03T12:07:00Z"),
+                        shift("a2", "2025-03-03T12:07:00Z", "2025-03-03T16:00:00Z"),
+                        shift("a3", "2025-03-03T16:20:00Z", "2025-03-03T16:25:00Z")),
+                employee("B", "cashier", shift("b1", "2025-03-03T12:00:00Z", "2025-03-03T12:15:00Z")));
+
+        StaffingCoverage c = new CoverageEngine().compute(staff, Instant.parse("2025-03-03T11:45:00Z"),
+                Instant.parse("2025-03-03T16:45:00Z"), QUARTER);
+
+        int[] expected = new int[20];
+        Arrays.fill(expected, 0, 17, 1);   // A from 11:45 to 16:00
+        expected[1] = 2;                    // 12:00-12:15: A (both shifts) and B
+        expected[18] = 1;                   // 16:15-16:30: A again after a free slot
+        assertArrayEquals(expected, c.total());
+    }
+
+    @Test
+    void gaps_shouldReportRunsOfUnderAndOverStaffedSlots() {
+        List<Employee> staff = List.of(
+                employee("A", "cashier", shift("a1", "2025-03-03T09:00:00Z", "2025-03-03T10:00:00Z")),
+                employee("B", "cashier", shift("b1", "2025-03-03T09:30:00Z", "2025-03-03T10:00:00Z")));
+
+        StaffingCoverage c = new CoverageEngine().compute(staff, Instant.parse("2025-03-03T08:30:00Z"),
+                Instant.parse("2025-03-03T10:30:00Z"), QUARTER);
+        List<StaffingGap> gaps = c.gaps("cashier", 1, 1);
+
+        assertEquals(3, gaps.size());
+        assertEquals(StaffingGap.Kind.UNDER, gaps.get(0).getKind());
+        assertEquals(Instant.parse("2025-03-03T08:30:00Z"), gaps.get(0).getFrom());
+        assertEquals(Instant.parse("2025-03-03T09:00:00Z"), gaps.get(0).getTo());
+        assertEquals(StaffingGap.Kind.OVER, gaps.get(1).getKind());
+        assertEquals(2, gaps.get(1).getWorst());
+        assertEquals(Instant.parse("2025-03-03T10:00:00Z"), gaps.get(2).getFrom());
+    }
+
+    @Test
+    void compute_shouldMatchBruteForceOnRandomData() {
+        Random rnd = new Random(42);
+        String[] roles = {"cashier", "manager", "cook"};
+        List<Employee> staff = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            List<Shift> shifts = new ArrayList<>();
+            Instant cursor = MONDAY.minus(Duration.ofHours(6)).plus(Duration.ofMinutes(rnd.nextInt(600)));
+            for (int k = 0; k < 6; k++) {
+                Instant start = cursor.plus(Duration.ofMinutes(rnd.nextInt(1000)));
+                Instant end = start.plus(Duration.ofMinutes(30 + rnd.nextInt(420)));
+                shifts.add(new Shift("s" + i + "-" + k, start, end));
+                cursor = end;
+            }
+            staff.add(new Employee("E" + i, "E" + i, roles[rnd.nextInt(roles.length)], shifts, ZoneOffset.UTC));
+        }
+        Instant to = MONDAY.plus(Duration.ofDays(7));
+
+        StaffingCoverage c = new CoverageEngine(new ForkJoinPool(4)).compute(staff, MONDAY, to, QUARTER);
+
+        int slots = 7 * 24 * 4;
+        assertEquals(slots, c.slotCount());
+        for (String role : roles) {
+            int[] expected = new int[slots];
+            for (Employee e : staff) {
+                if (!e.getRole().equals(role)) continue;
+                for (int i = 0; i < slots; i++) {
+                    Instant a = MONDAY.plus(QUARTER.multipliedBy(i));
+                    for (Shift s : e.getScheduledShifts()) {
+                        if (s.getStart().isBefore(a.plus(QUARTER)) && a.isBefore(s.getEnd())) {
+                            expected[i]++;
+                            break;
+                        }
+                    }
+                }
+            }
+            assertArrayEquals(expected, c.forRole(role), role);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCodecTest {
+
+    private final EmployeeCodec codec = new EmployeeCodec();
+
+    private BsonDocument encode(Employee e) {
+        BsonDocument doc = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(doc), e, EncoderContext.builder().build());
+        return doc;
+    }
+
+    private Employee decode(BsonDocument doc) {
+        return codec.decode(new BsonDocumentReader(doc), DecoderContext.builder().build());
+    }
+
+    @Test
+    void encodeThenDecode_shouldRoundTripShiftsAndTemplates() {
+        Instant start = Instant.parse("2025-11-03T08:00:00.123456789Z");
+        Employee e = new Employee("Ann", "E1", "nurse");
+        e.addShift(new Shift("2f1c7d3e-4b5a-4c6d-8e9f-0a1b2c3d4e5f", start, start.plus(Duration.ofHours(4))));
+        e.addShift(new Shift("SH-2", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+        e.addRecurringShift(RecurringShift.builder("tpl", EnumSet.of(DayOfWeek.SATURDAY), LocalTime.of(9, 0),
+                Duration.ofHours(3), LocalDate.of(2025, 11, 1)).zone(ZoneOffset.UTC).everyWeeks(2)
+                .until(LocalDate.of(2026, 1, 31)).notes("weekend").build());
+
+        BsonDocument doc = encode(e);
+        Employee back = decode(doc);
+
+        assertEquals(2, doc.getInt32("schemaVersion").getValue());
+        assertTrue(doc.getArray("shifts").get(0).asDocument().get("id") instanceof BsonBinary);
+        assertTrue(doc.getArray("shifts").get(0).asDocument().get("start").isDateTime());
+        assertEquals("E1", back.getEmployeeId());
+        assertEquals("Ann", back.getName());
+        assertEquals("nurse", back.getRole());
+        assertEquals(e.getScheduledShifts(), back.getScheduledShifts());
+        assertEquals(e.getRecurringShifts(), back.getRecurringShifts());
+        assertTrue(back.pendingChanges().isEmpty());
+    }
+
+    @Test
+    void decode_shouldReadSchemaOneStringTimesAndSkipUnknownFields() {
+        Document old = new Document("_id", new ObjectId())
+                .append("employeeId", "E2")
+                .append("name", "Old")
+                .append("role", "R")
+                .append("marker", new Document("nested", List.of(1, 2)))
+                .append("shifts", List.of(new Document("id", "S-1")
+                        .append("start", "2025-11-03T08:00:00Z")
+                        .append("end", "2025-11-03T12:00:00.500Z")));
+
+        Employee e = decode(old.toBsonDocument());
+
+        assertEquals(0, e.getVersion());
+        assertEquals(List.of(new Shift("S-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00.500Z"))),
+                e.getScheduledShifts());
+        assertTrue(e.getRecurringShifts().isEmpty());
+    }
+
+    @Test
+    void decode_shouldSkipShiftsWithUnreadableTimes() {
+        Document doc = new Document("employeeId", "E5")
+                .append("name", "Broken")
+                .append("role", "R")
+                .append("shifts", List.of(
+                        new Document("id", "S-bad").append("start", "not a time").append("end", "2025-11-03T12:00:00Z"),
+                        new Document("id", "S-missing").append("start", "2025-11-03T13:00:00Z"),
+                        new Document("id", "S-reversed").append("start", "2025-11-03T18:00:00Z").append("end", "2025-11-03T17:00:00Z"),
+                        new Document("id", "S-ok").append("start", "2025-11-04T08:00:00Z").append("end", "2025-11-04T12:00:00Z")));
+
+        Employee eager = decode(doc.toBsonDocument());
+        Employee lazy = codec.decodeLazily(new RawBsonDocument(doc.toBsonDocument(), new BsonDocumentCodec()));
+
+        assertEquals(List.of("S-ok"), eager.getScheduledShifts().stream().map(Shift::getId).toList());
+        assertEquals(eager.getScheduledShifts(), lazy.getScheduledShifts());
+        assertEquals(6, codec.skippedShiftCount());
+    }
+
+    @Test
+    void decode_shouldKeepFirstShiftOfADuplicatedId() {
+        Document doc = new Document("employeeId", "E6")
+                .append("name", "Dup")
+                .append("role", "R")
+                .append("shifts", List.of(
+                        new Document("id", "S-1").append("start", "2025-11-03T08:00:00Z").append("end", "2025-11-03T12:00:00Z"),
+                        new Document("id", "S-1").append("start", "2025-11-04T08:00:00Z").append("end", "2025-11-04T12:00:00Z")));
+
+        Employee e = decode(doc.toBsonDocument());
+
+        assertEquals(List.of(new Shift("S-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z"))),
+                e.getScheduledShifts());
+    }
+
+    @Test
+    void decodeShiftsInto_shouldAppendProjectedShiftsWithoutAnEmployee() {
+        Document projected = new Document("employeeId", "E7")
+                .append("shifts", List.of(
+                        new Document("id", "S-1").append("start", "2025-11-03T08:00:00Z").append("end", "2025-11-03T12:00:00Z"),
+                        new Document("id", "S-bad").append("start", "not a time").append("end", "2025-11-03T12:00:00Z"),
+                        new Document("id", "S-1").append("start", "2025-11-04T08:00:00Z").append("end", "2025-11-04T12:00:00Z")));
+        ShiftStore store = new ShiftStore();
+
+        int ordinal = codec.decodeShiftsInto(new BsonDocumentReader(projected.toBsonDocument()), store);
+        codec.decodeShiftsInto(new BsonDocumentReader(new Document("employeeId", "E8").toBsonDocument()), store);
+
+        assertEquals("E7", store.employeeId(ordinal));
+        assertEquals(List.of(new Shift("S-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z"))),
+                store.shiftsOf("E7"));
+        assertEquals(2, store.employeeCount());
+        assertEquals(2, codec.skippedShiftCount());
+    }
+
+    @Test
+    void decode_shouldReadTimestampVersionWithoutWritingIt() {
+        BsonDocument doc = encode(new Employee("Ver", "E4", "R"));
+        doc.put("version", new BsonTimestamp(1_700_000_000, 7));
+
+        Employee e = decode(doc);
+
+        assertFalse(encode(e).containsKey("version"));
+        assertEquals(new BsonTimestamp(1_700_000_000, 7).getValue(), e.getVersion());
+        assertEquals(e.getVersion(), new Employee(e).getVersion());
+        assertEquals(e.getVersion(), codec.decodeLazily(new RawBsonDocument(doc, new BsonDocumentCodec())).getVersion());
+    }
+
+    @Test
+    void decodeLazily_shouldDecodeShiftsOnlyOnFirstUse() {
+        Employee e = new Employee("Lazy", "E3", "R");
+        e.addShift(new Shift("S-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        RawBsonDocument raw = new RawBsonDocument(e, codec);
+
+        Employee lazy = codec.decodeLazily(raw);
+        Employee copy = new Employee(lazy);
+
+        assertEquals("Lazy", lazy.getName());
+        assertEquals("E3", lazy.getEmployeeId());
+        assertTrue(lazy.pendingChanges().isEmpty());
+        assertFalse(lazy.isHydrated());
+        assertFalse(copy.isHydrated());
+
+        lazy.addShift(new Shift("S-2", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+
+        assertTrue(lazy.isHydrated());
+        assertFalse(lazy.pendingChanges().isStructural());
+        assertEquals(List.of("S-2"), lazy.pendingChanges().getAddedShifts().stream().map(Shift::getId).toList());
+        assertEquals(e.getScheduledShifts(), copy.getScheduledShifts());
+    }
+}
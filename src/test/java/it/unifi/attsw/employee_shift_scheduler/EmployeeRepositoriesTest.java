@@ -0,0 +1,21 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import it.unifi.attsw.employee_shift_scheduler.repository.EmployeeRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeRepositoriesTest {
+
+    @Test
+    void forApplication_shouldCacheLazyLoadedEmployeesAndStartTheDateMigration() {
+        MongoEmployeeRepository mongo = mock(MongoEmployeeRepository.class);
+
+        EmployeeRepository repo = EmployeeRepositories.forApplication(mongo);
+
+        assertTrue(assertInstanceOf(CachingEmployeeRepository.class, repo).isRevalidating());
+        verify(mongo).setLazyLoading(true);
+        verify(mongo).dateMigration(EmployeeRepositories.MIGRATION_BATCH_SIZE);
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,7 +37,7 @@ class EmployeeServiceTest {
         // build an employee with no shifts
         Employee existing = new Employee("Alice", empId, "role");
         when(repo.findById(empId)).thenReturn(Optional.of(existing));
-        when(repo.save(any(Employee.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repo.saveIfUnchanged(any(Employee.class))).thenReturn(true);
 
         // create a shift (LocalDateTime constructor)
         LocalDateTime s = LocalDateTime.of(2025, 12, 1, 9, 0);
@@ -44,9 +46,9 @@ class EmployeeServiceTest {
 
         Employee saved = service.addShiftToEmployee(empId, shift);
 
-        // verify repo.save called once with employee that now contains the shift
+        // verify repo.saveIfUnchanged called once with employee that now contains the shift
         ArgumentCaptor<Employee> captor = ArgumentCaptor.forClass(Employee.class);
-        verify(repo, times(1)).save(captor.capture());
+        verify(repo, times(1)).saveIfUnchanged(captor.capture());
         Employee persisted = captor.getValue();
 
         assertThat(persisted.getEmployeeId()).isEqualTo(empId);
@@ -61,7 +63,7 @@ class EmployeeServiceTest {
     void addShiftToEmployee_nonExisting_createsEmployeeAndSaves() {
         String empId = "E200";
         when(repo.findById(empId)).thenReturn(Optional.empty());
-        when(repo.save(any(Employee.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repo.saveIfUnchanged(any(Employee.class))).thenReturn(true);
 
         LocalDateTime s = LocalDateTime.of(2025, 11, 30, 8, 0);
         LocalDateTime e = LocalDateTime.of(2025, 11, 30, 16, 0);
@@ -71,7 +73,7 @@ class EmployeeServiceTest {
 
         // verify saved employee has the shift and employeeId set correctly
         ArgumentCaptor<Employee> captor = ArgumentCaptor.forClass(Employee.class);
-        verify(repo, times(1)).save(captor.capture());
+        verify(repo, times(1)).saveIfUnchanged(captor.capture());
         Employee persisted = captor.getValue();
 
         assertThat(persisted.getEmployeeId()).isEqualTo(empId);
@@ -82,6 +84,57 @@ class EmployeeServiceTest {
         assertThat(saved.getScheduledShifts()).hasSize(1);
     }
 
+    @Test
+    void addShiftToEmployee_shouldUseAtomicRepositoryAdd_whenItSucceeds() {
+        Shift shift = new Shift(LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 17, 0));
+        Employee updated = new Employee("Alice", "E150", "role", List.of(shift));
+        when(repo.addShiftIfNoConflict("E150", shift)).thenReturn(Optional.of(updated));
+
+        assertThat(service.addShiftToEmployee("E150", shift)).isSameAs(updated);
+        verify(repo, never()).findById(anyString());
+        verify(repo, never()).save(any(Employee.class));
+    }
+
+    @Test
+    void addShiftToEmployee_shouldReportConflict_whenAtomicAddIsRejected() {
+        Shift existingShift = new Shift(LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 17, 0));
+        Shift clash = new Shift(LocalDateTime.of(2025, 12, 1, 12, 0), LocalDateTime.of(2025, 12, 1, 13, 0));
+        when(repo.addShiftIfNoConflict("E160", clash)).thenReturn(Optional.empty());
+        when(repo.findById("E160")).thenReturn(Optional.of(new Employee("Bob", "E160", "role", List.of(existingShift))));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.addShiftToEmployee("E160", clash));
+        assertThat(ex.getMessage()).contains("overlaps");
+        verify(repo, never()).save(any(Employee.class));
+        verify(repo, never()).saveIfUnchanged(any(Employee.class));
+    }
+
+    @Test
+    void addShiftToEmployee_shouldRereadAndRetry_whenEmployeeChangedBeforeSave() {
+        Shift shift = new Shift(LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 17, 0));
+        when(repo.addShiftIfNoConflict("E170", shift)).thenReturn(Optional.empty());
+        when(repo.findById("E170")).thenAnswer(inv -> Optional.of(new Employee("Carl", "E170", "role")));
+        when(repo.saveIfUnchanged(any(Employee.class))).thenReturn(false, true);
+
+        Employee saved = service.addShiftToEmployee("E170", shift);
+
+        assertThat(saved.getScheduledShifts()).containsExactly(shift);
+        verify(repo, times(2)).findById("E170");
+        verify(repo, never()).save(any(Employee.class));
+    }
+
+    @Test
+    void addShiftToEmployee_shouldGiveUp_whenEmployeeKeepsChanging() {
+        Shift shift = new Shift(LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 17, 0));
+        when(repo.addShiftIfNoConflict("E180", shift)).thenReturn(Optional.empty());
+        when(repo.findById("E180")).thenAnswer(inv -> Optional.of(new Employee("Dana", "E180", "role")));
+        when(repo.saveIfUnchanged(any(Employee.class))).thenReturn(false);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.addShiftToEmployee("E180", shift));
+
+        assertThat(ex.getMessage()).contains("modified concurrently");
+        verify(repo, times(EmployeeService.MAX_SAVE_ATTEMPTS)).saveIfUnchanged(any(Employee.class));
+    }
+
     @Test
     void removeShiftFromEmployee_existing_removesAndSaves() {
         String empId = "E300";
@@ -150,4 +203,74 @@ class EmployeeServiceTest {
         assertThat(removed).isEmpty();
         verify(repo, never()).deleteById(anyString());
     }
+
+    @Test
+    void addShiftsToEmployee_existingEmployee_addsBatchAndSavesOnce() {
+        String empId = "E600";
+        Employee existing = new Employee("Dan", empId, "role");
+        when(repo.findById(empId)).thenReturn(Optional.of(existing));
+        when(repo.save(any(Employee.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Shift sh1 = new Shift(LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 13, 0));
+        Shift sh2 = new Shift(LocalDateTime.of(2025, 12, 2, 9, 0), LocalDateTime.of(2025, 12, 2, 13, 0));
+
+        Employee saved = service.addShiftsToEmployee(empId, List.of(sh2, sh1));
+
+        verify(repo, times(1)).save(existing);
+        assertThat(saved.getScheduledShifts()).containsExactly(sh1, sh2);
+    }
+
+    @Test
+    void addShiftsToEmployee_invalidBatch_throwsAndDoesNotSave() {
+        String empId = "E601";
+        when(repo.findById(empId)).thenReturn(Optional.empty());
+
+        Shift sh1 = new Shift(LocalDateTime.of(2025, 12, 1, 9, 0), LocalDateTime.of(2025, 12, 1, 13, 0));
+        Shift overlapping = new Shift(LocalDateTime.of(2025, 12, 1, 12, 0), LocalDateTime.of(2025, 12, 1, 14, 0));
+
+        assertThrows(RuntimeException.class, () -> service.addShiftsToEmployee(empId, List.of(sh1, overlapping)));
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void findShift_delegatesToEmployeeIndex() {
+        String empId = "E700";
+        Shift sh = new Shift("S-700", LocalDateTime.of(2025, 12, 3, 9, 0), LocalDateTime.of(2025, 12, 3, 13, 0), "");
+        Employee existing = new Employee("Eve", empId, "role", List.of(sh));
+        when(repo.findById(empId)).thenReturn(Optional.of(existing));
+        when(repo.findById("nobody")).thenReturn(Optional.empty());
+
+        assertThat(service.findShift(empId, "S-700")).contains(sh);
+        assertThat(service.findShift(empId, "other")).isEmpty();
+        assertThat(service.findShift("nobody", "S-700")).isEmpty();
+    }
+
+    @Test
+    void staffingCoverage_loadsOnlyEmployeesWithShiftsInRange() {
+        Employee a = new Employee("Alice", "E1", "cashier");
+        a.addShift(new Shift("S1", Instant.parse("2025-12-01T09:00:00Z"), Instant.parse("2025-12-01T10:00:00Z")));
+        Instant from = Instant.parse("2025-12-01T08:00:00Z");
+        Instant to = Instant.parse("2025-12-01T10:00:00Z");
+        when(repo.findEmployeesWithShiftsBetween(from, to)).thenReturn(List.of(a));
+
+        StaffingCoverage coverage = service.staffingCoverage(from, to, Duration.ofMinutes(30));
+
+        assertThat(coverage.total()).containsExactly(0, 0, 1, 1);
+        assertThat(coverage.roles()).containsExactly("cashier");
+        verify(repo, never()).findAll();
+    }
+
+    @Test
+    void autoAssign_commitsAssignmentsOfMatchingRoleOnly() {
+        Employee cashier = new Employee("Alice", "E1", "cashier");
+        Employee cook = new Employee("Bob", "E2", "cook");
+        when(repo.findAll()).thenReturn(List.of(cashier, cook));
+        Shift open = new Shift("OPEN-1", Instant.parse("2025-12-01T09:00:00Z"), Instant.parse("2025-12-01T13:00:00Z"));
+
+        AssignmentResult result = service.autoAssign(List.of(open), "cashier");
+
+        assertThat(result.getAssignments()).containsOnlyKeys("E1");
+        assertThat(cashier.findShift("OPEN-1")).isPresent();
+        verify(repo).saveAll(List.of(cashier));
+    }
 }
@@ -2,7 +2,17 @@ package it.unifi.attsw.employee_shift_scheduler;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,4 +29,242 @@ class EmployeeTest {
         e.addShift(s2);
         assertEquals(2, e.getScheduledShifts().size());
     }
+
+    @Test
+    void addOverlappingShift_shouldThrow() {
+        Employee e = new Employee("Ali","E001","cashier");
+        e.addShift(new Shift(LocalDateTime.of(2025,11,26,8,0),
+                             LocalDateTime.of(2025,11,26,12,0)));
+        Shift overlapping = new Shift(LocalDateTime.of(2025,11,26,11,0),
+                                      LocalDateTime.of(2025,11,26,13,0));
+        assertThrows(IllegalArgumentException.class, () -> e.addShift(overlapping));
+        assertEquals(1, e.getScheduledShifts().size());
+    }
+
+    @Test
+    void scheduledShifts_shouldBeOrderedByStart_andRemovable() {
+        Employee e = new Employee("Ali","E001","cashier");
+        Shift late = new Shift(LocalDateTime.of(2025,11,27,8,0),
+                               LocalDateTime.of(2025,11,27,12,0));
+        Shift early = new Shift(LocalDateTime.of(2025,11,26,8,0),
+                                LocalDateTime.of(2025,11,26,12,0));
+        e.addShift(late);
+        e.addShift(early);
+        assertEquals(early.getId(), e.getScheduledShifts().get(0).getId());
+
+        e.removeShiftById(early.getId());
+        assertEquals(1, e.getScheduledShifts().size());
+        assertEquals(late.getId(), e.getScheduledShifts().get(0).getId());
+    }
+
+    @Test
+    void addShifts_batch_shouldAddAllInStartOrder() {
+        Employee e = new Employee("Ali","E001","cashier");
+        Shift wed = new Shift(LocalDateTime.of(2025,11,26,8,0), LocalDateTime.of(2025,11,26,12,0));
+        Shift mon = new Shift(LocalDateTime.of(2025,11,24,8,0), LocalDateTime.of(2025,11,24,12,0));
+        Shift tue = new Shift(LocalDateTime.of(2025,11,25,8,0), LocalDateTime.of(2025,11,25,12,0));
+
+        e.addShifts(List.of(wed, mon, tue));
+
+        assertEquals(List.of(mon, tue, wed), e.getScheduledShifts());
+    }
+
+    @Test
+    void addShifts_batchWithInternalOverlap_shouldAddNothing() {
+        Employee e = new Employee("Ali","E001","cashier");
+        Shift a = new Shift(LocalDateTime.of(2025,11,24,8,0), LocalDateTime.of(2025,11,24,18,0));
+        Shift b = new Shift(LocalDateTime.of(2025,11,24,9,0), LocalDateTime.of(2025,11,24,10,0));
+        Shift c = new Shift(LocalDateTime.of(2025,11,24,12,0), LocalDateTime.of(2025,11,24,13,0));
+
+        assertThrows(IllegalArgumentException.class, () -> e.addShifts(List.of(c, a, b)));
+        assertTrue(e.getScheduledShifts().isEmpty());
+    }
+
+    @Test
+    void addShifts_batchExceedingWeeklyLimit_shouldAddNothing() {
+        Employee e = new Employee("Ali","E001","cashier");
+        e.addShift(new Shift(LocalDateTime.of(2025,11,24,0,0), LocalDateTime.of(2025,11,25,0,0))); // 24h
+        Shift x = new Shift(LocalDateTime.of(2025,11,26,0,0), LocalDateTime.of(2025,11,26,10,0));  // 10h
+        Shift y = new Shift(LocalDateTime.of(2025,11,27,0,0), LocalDateTime.of(2025,11,27,10,0));  // 10h
+
+        assertThrows(IllegalArgumentException.class, () -> e.addShifts(List.of(x, y)));
+        assertEquals(1, e.getScheduledShifts().size());
+    }
+
+    @Test
+    void findShift_shouldUseIdIndex_andForgetRemovedShifts() {
+        Employee e = new Employee("Ali","E001","cashier");
+        Shift s1 = new Shift("S1", LocalDateTime.of(2025,11,26,8,0), LocalDateTime.of(2025,11,26,12,0), "");
+        e.addShift(s1);
+
+        assertEquals(s1, e.findShift("S1").orElseThrow());
+        assertTrue(e.findShift("missing").isEmpty());
+
+        e.removeShiftById("S1");
+        assertTrue(e.findShift("S1").isEmpty());
+        assertTrue(e.getScheduledShifts().isEmpty());
+    }
+
+    @Test
+    void addShift_shouldRejectDuplicateIds() {
+        Employee e = new Employee("Ali","E001","cashier");
+        e.addShift(new Shift("dup", LocalDateTime.of(2025,11,26,8,0), LocalDateTime.of(2025,11,26,12,0), ""));
+        Shift sameId = new Shift("dup", LocalDateTime.of(2025,11,27,8,0), LocalDateTime.of(2025,11,27,12,0), "");
+        Shift other = new Shift("other", LocalDateTime.of(2025,11,28,8,0), LocalDateTime.of(2025,11,28,12,0), "");
+
+        assertThrows(IllegalArgumentException.class, () -> e.addShift(sameId));
+        assertThrows(IllegalArgumentException.class, () -> e.addShifts(List.of(other, sameId)));
+        assertThrows(IllegalArgumentException.class, () -> e.addShifts(List.of(other,
+                new Shift("other", LocalDateTime.of(2025,11,29,8,0), LocalDateTime.of(2025,11,29,12,0), ""))));
+
+        assertEquals(1, e.getScheduledShifts().size());
+        e.removeShiftById("dup");
+        assertTrue(e.getScheduledShifts().isEmpty());
+    }
+
+    @Test
+    void constructor_shouldKeepFirstShiftOfADuplicatedId() {
+        Shift first = new Shift("dup", LocalDateTime.of(2025,11,26,8,0), LocalDateTime.of(2025,11,26,12,0), "");
+        Shift second = new Shift("dup", LocalDateTime.of(2025,11,27,8,0), LocalDateTime.of(2025,11,27,12,0), "");
+
+        Employee e = new Employee("Ali","E002","cashier", List.of(first, second));
+
+        assertEquals(List.of(first), e.getScheduledShifts());
+        e.setScheduledShifts(List.of(second, first));
+        assertEquals(List.of(second), e.getScheduledShifts());
+    }
+
+    @Test
+    void getScheduledShifts_shouldBeAnImmutableSnapshot() {
+        Employee e = new Employee("Ali","E001","cashier");
+        e.addShift(new Shift(LocalDateTime.of(2025,11,24,8,0), LocalDateTime.of(2025,11,24,12,0)));
+        List<Shift> snapshot = e.getScheduledShifts();
+
+        e.addShift(new Shift(LocalDateTime.of(2025,11,25,8,0), LocalDateTime.of(2025,11,25,12,0)));
+
+        assertEquals(1, snapshot.size());
+        for (Shift ignored : snapshot) {
+            // iterating an old snapshot after a write must not throw
+        }
+        assertEquals(2, e.getScheduledShifts().size());
+    }
+
+    @Test
+    void concurrentAdds_shouldNotLoseUpdates() {
+        Employee e = new Employee("Ali","E001","cashier");
+        Instant base = Instant.parse("2025-01-06T00:00:00Z");
+        // 200 one-minute shifts in distinct weeks: all valid, none overlapping
+        IntStream.range(0, 200).parallel().forEach(i -> e.addShift(
+                new Shift("S" + i, base.plusSeconds(i * 7L * 24 * 3600), base.plusSeconds(i * 7L * 24 * 3600 + 60))));
+
+        assertEquals(200, e.getScheduledShifts().size());
+        assertTrue(e.findShift("S199").isPresent());
+    }
+
+    @Test
+    void shiftsBetween_shouldReturnOnlyShiftsOverlappingWindow() {
+        Employee e = new Employee("Ali","E001","cashier");
+        Shift sunNight = new Shift("sun", Instant.parse("2025-11-23T22:00:00Z"), Instant.parse("2025-11-24T02:00:00Z"));
+        Shift mon = new Shift("mon", Instant.parse("2025-11-24T08:00:00Z"), Instant.parse("2025-11-24T12:00:00Z"));
+        Shift nextMon = new Shift("next", Instant.parse("2025-12-01T08:00:00Z"), Instant.parse("2025-12-01T12:00:00Z"));
+        e.addShifts(List.of(nextMon, mon, sunNight));
+
+        List<Shift> week = e.shiftsBetween(Instant.parse("2025-11-24T00:00:00Z"), Instant.parse("2025-12-01T00:00:00Z"));
+
+        assertEquals(List.of(sunNight, mon), week);
+        assertTrue(e.shiftsBetween(Instant.parse("2025-11-25T00:00:00Z"), Instant.parse("2025-11-26T00:00:00Z")).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> e.shiftsBetween(Instant.parse("2025-11-26T00:00:00Z"), Instant.parse("2025-11-25T00:00:00Z")));
+    }
+
+    private static RecurringShift weekdays(String id, int hour, int hours, int everyWeeks) {
+        return RecurringShift.builder(id, EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(hour, 0),
+                Duration.ofHours(hours), LocalDate.of(2025, 1, 6)).zone(ZoneOffset.UTC).everyWeeks(everyWeeks).build();
+    }
+
+    @Test
+    void recurringShift_shouldBeCheckedAgainstConcreteShiftsAndLimit() {
+        Employee e = new Employee("Ali","E001","cashier", List.of(), ZoneOffset.UTC);
+        e.addRecurringShift(weekdays("R1", 9, 7, 1));
+
+        assertEquals(35.0, e.weeklyHours(YearWeek.of(2030, 10)));
+        assertThrows(IllegalArgumentException.class, () -> e.addShift(new Shift("X",
+                Instant.parse("2031-06-02T15:00:00Z"), Instant.parse("2031-06-02T18:00:00Z"))));
+        assertThrows(IllegalArgumentException.class, () -> e.addShift(new Shift("Y",
+                Instant.parse("2031-06-07T09:00:00Z"), Instant.parse("2031-06-07T15:00:00Z"))));   // Saturday, but 41h
+        e.addShift(new Shift("Z", Instant.parse("2031-06-07T09:00:00Z"), Instant.parse("2031-06-07T14:00:00Z")));
+
+        List<Shift> monday = e.shiftsBetween(Instant.parse("2031-06-02T00:00:00Z"), Instant.parse("2031-06-03T00:00:00Z"));
+        assertEquals(List.of("R1@2031-06-02"), monday.stream().map(Shift::getId).toList());
+        assertTrue(e.findShift("R1@2031-06-02").isPresent());
+        assertTrue(e.findShift("R1@2031-06-07").isEmpty());
+        assertEquals(1, e.getScheduledShifts().size());
+    }
+
+    @Test
+    void addRecurringShift_shouldRejectOverlapWithConcreteShiftFarInTheFuture() {
+        Employee e = new Employee("Ali","E001","cashier", List.of(), ZoneOffset.UTC);
+        e.addShift(new Shift("FUT", Instant.parse("2040-01-02T16:00:00Z"), Instant.parse("2040-01-02T18:00:00Z")));
+
+        assertThrows(IllegalArgumentException.class, () -> e.addRecurringShift(weekdays("R1", 9, 8, 1)));
+        assertTrue(e.getRecurringShifts().isEmpty());
+    }
+
+    @Test
+    void addRecurringShift_shouldDetectTemplateClashesAcrossIntervals() {
+        Employee e = new Employee("Ali","E001","cashier", List.of(), ZoneOffset.UTC);
+        e.addRecurringShift(weekdays("EVEN", 9, 4, 2));
+        // odd weeks only: never clashes with EVEN
+        e.addRecurringShift(RecurringShift.builder("ODD", EnumSet.of(DayOfWeek.MONDAY), LocalTime.of(9, 0),
+                Duration.ofHours(4), LocalDate.of(2025, 1, 13)).zone(ZoneOffset.UTC).everyWeeks(2).build());
+        // every third week starting one week later meets EVEN three weeks after that
+        RecurringShift third = RecurringShift.builder("THIRD", EnumSet.of(DayOfWeek.FRIDAY), LocalTime.of(12, 0),
+                Duration.ofHours(2), LocalDate.of(2025, 1, 13)).zone(ZoneOffset.UTC).everyWeeks(3).build();
+
+        assertThrows(IllegalArgumentException.class, () -> e.addRecurringShift(third));
+        assertEquals(2, e.getRecurringShifts().size());
+        e.removeRecurringShift("EVEN");
+        e.addRecurringShift(third);
+    }
+
+    @Test
+    void addRecurringShift_shouldEnforceWeeklyLimitTogetherWithOtherTemplates() {
+        Employee e = new Employee("Ali","E001","cashier", List.of(), ZoneOffset.UTC);
+        e.addRecurringShift(weekdays("DAY", 8, 6, 1));
+        RecurringShift evening = RecurringShift.builder("EVE", EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY),
+                LocalTime.of(18, 0), Duration.ofHours(6), LocalDate.of(2026, 1, 1)).zone(ZoneOffset.UTC).build();
+
+        assertThrows(IllegalArgumentException.class, () -> e.addRecurringShift(evening));
+    }
+
+    @Test
+    void pendingChanges_shouldTrackDeltasSinceLastPersist() {
+        Shift kept = new Shift("K", Instant.parse("2025-03-03T09:00:00Z"), Instant.parse("2025-03-03T12:00:00Z"));
+        Shift old = new Shift("O", Instant.parse("2025-03-04T09:00:00Z"), Instant.parse("2025-03-04T12:00:00Z"));
+        Employee e = new Employee("Ali","E001","cashier", List.of(kept, old));
+        assertTrue(e.pendingChanges().isStructural());
+        e.markPersisted(e.pendingChanges());
+        assertTrue(e.pendingChanges().isEmpty());
+
+        Shift added = new Shift("N", Instant.parse("2025-03-05T09:00:00Z"), Instant.parse("2025-03-05T12:00:00Z"));
+        Shift transientShift = new Shift("T", Instant.parse("2025-03-06T09:00:00Z"), Instant.parse("2025-03-06T12:00:00Z"));
+        e.addShift(added);
+        e.addShift(transientShift);
+        e.removeShiftById("O");
+        e.removeShiftById("T");
+        ShiftChanges changes = e.pendingChanges();
+
+        assertFalse(changes.isStructural());
+        assertEquals(List.of(added), changes.getAddedShifts());
+        assertEquals(Set.of("O"), changes.getRemovedShiftIds());
+
+        Shift later = new Shift("L", Instant.parse("2025-03-07T09:00:00Z"), Instant.parse("2025-03-07T12:00:00Z"));
+        e.addShift(later);
+        e.markPersisted(changes);
+        assertEquals(List.of(later), e.pendingChanges().getAddedShifts());
+        assertTrue(e.pendingChanges().getRemovedShiftIds().isEmpty());
+
+        e.setScheduledShifts(List.of(kept));
+        assertTrue(e.pendingChanges().isStructural());
+    }
 }
@@ -2,7 +2,10 @@ package it.unifi.attsw.employee_shift_scheduler;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,4 +32,47 @@ class EmployeeWeeklyHourTddTest {
         Shift extra = new Shift(LocalDateTime.of(2025,11,22,8,0), LocalDateTime.of(2025,11,22,18,0)); // 10 hours
         assertThrows(IllegalArgumentException.class, () -> e.addShift(extra));
     }
+
+    @Test
+    void weeklyLimit_shouldOnlyCountShiftsOfTheSameIsoWeek() {
+        Employee e = new Employee("Tdd","T002","tester", null, ZoneOffset.UTC);
+
+        // 40 hours in ISO week 2025-W47 (Mon 17 Nov - Sun 23 Nov)
+        for (int day = 17; day <= 21; day++) {
+            e.addShift(new Shift("w47-" + day,
+                    Instant.parse("2025-11-" + day + "T08:00:00Z"),
+                    Instant.parse("2025-11-" + day + "T16:00:00Z")));
+        }
+        // next Monday is a new week
+        e.addShift(new Shift("w48", Instant.parse("2025-11-24T08:00:00Z"), Instant.parse("2025-11-24T16:00:00Z")));
+
+        assertEquals(40.0, e.weeklyHours(YearWeek.of(2025, 47)));
+        assertEquals(8.0, e.weeklyHours(YearWeek.of(2025, 48)));
+        assertThrows(IllegalArgumentException.class, () -> e.addShift(new Shift("w47-extra",
+                Instant.parse("2025-11-22T08:00:00Z"), Instant.parse("2025-11-22T08:30:00Z"))));
+    }
+
+    @Test
+    void weeklyHours_shouldSplitShiftsAcrossWeekBoundary_andFollowRemovals() {
+        Employee e = new Employee("Tdd","T003","tester", null, ZoneOffset.UTC);
+        Shift night = new Shift("night", Instant.parse("2025-11-23T20:00:00Z"), Instant.parse("2025-11-24T04:30:00Z"));
+        e.addShift(night);
+
+        assertEquals(4.0, e.weeklyHours(YearWeek.of(2025, 47)));
+        assertEquals(4.5, e.weeklyHours(YearWeek.of(2025, 48)));
+
+        e.removeShiftById("night");
+        assertEquals(0L, e.weeklyMinutes(YearWeek.of(2025, 47)));
+        assertEquals(0L, e.weeklyMinutes(YearWeek.of(2025, 48)));
+    }
+
+    @Test
+    void yearWeek_shouldFollowIsoRules() {
+        // 2024-12-30 (Monday) belongs to 2025-W01
+        assertEquals(YearWeek.of(2025, 1), YearWeek.from(LocalDate.of(2024, 12, 30)));
+        assertEquals(LocalDate.of(2024, 12, 30), YearWeek.of(2025, 1).atMonday());
+        assertEquals(YearWeek.of(2026, 1), YearWeek.of(2025, 52).plusWeeks(1));
+        assertEquals("2025-W07", YearWeek.of(2025, 7).toString());
+        assertThrows(IllegalArgumentException.class, () -> YearWeek.of(2025, 53));
+    }
 }
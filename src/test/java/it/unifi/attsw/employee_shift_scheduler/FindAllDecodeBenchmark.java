@@ -0,0 +1,112 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.Binary;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Decode cost of findAll per path, without a server: the documents are encoded once and
+ * each round decodes all of them from raw BSON, as the driver does for a cursor batch.
+ *
+ * - document: BSON -> Document (DocumentCodec) -> Employee, the mapping used before EmployeeCodec;
+ * - codec:    BSON -> Employee (EmployeeCodec).
+ *
+ * Not a unit test (no assertions, takes a while); run with
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=it.unifi.attsw.employee_shift_scheduler.FindAllDecodeBenchmark
+ */
+public class FindAllDecodeBenchmark {
+
+    private static final int EMPLOYEES = 2_000;
+    private static final int SHIFTS_PER_EMPLOYEE = 100;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        List<byte[]> docs = encodeAll();
+        DocumentCodec documentCodec = new DocumentCodec();
+        EmployeeCodec employeeCodec = new EmployeeCodec();
+
+        Function<byte[], Employee> viaDocument = bytes ->
+                fromDocument(documentCodec.decode(reader(bytes), DecoderContext.builder().build()));
+        Function<byte[], Employee> viaCodec = bytes ->
+                employeeCodec.decode(reader(bytes), DecoderContext.builder().build());
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            decodeAll(docs, viaDocument);
+            decodeAll(docs, viaCodec);
+        }
+        report("document", docs, viaDocument);
+        report("codec", docs, viaCodec);
+    }
+
+    private static List<byte[]> encodeAll() {
+        EmployeeCodec codec = new EmployeeCodec();
+        Instant base = Instant.parse("2025-01-06T08:00:00Z");
+        List<byte[]> out = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            List<Shift> shifts = new ArrayList<>(SHIFTS_PER_EMPLOYEE);
+            for (int s = 0; s < SHIFTS_PER_EMPLOYEE; s++) {
+                Instant start = base.plus(Duration.ofDays(s));
+                shifts.add(new Shift(start, start.plus(Duration.ofHours(6))));
+            }
+            Employee e = new Employee("Name " + i, "E" + i, "role", shifts);
+            BasicOutputBuffer buffer = new BasicOutputBuffer();
+            codec.encode(new BsonBinaryWriter(buffer), e, EncoderContext.builder().build());
+            out.add(buffer.toByteArray());
+        }
+        return out;
+    }
+
+    private static BsonBinaryReader reader(byte[] bytes) {
+        return new BsonBinaryReader(ByteBuffer.wrap(bytes));
+    }
+
+    private static long decodeAll(List<byte[]> docs, Function<byte[], Employee> decoder) {
+        long shifts = 0;
+        for (byte[] d : docs) {
+            shifts += decoder.apply(d).getScheduledShifts().size();
+        }
+        return shifts;
+    }
+
+    private static void report(String name, List<byte[]> docs, Function<byte[], Employee> decoder) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long startNanos = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            decodeAll(docs, decoder);
+        }
+        double millisPerRound = (System.nanoTime() - startNanos) / 1e6 / ROUNDS;
+        double mbPerRound = (threads.getThreadAllocatedBytes(thread) - allocatedBefore) / 1e6 / ROUNDS;
+        System.out.printf("%-8s %8.1f ms/findAll %8.1f MB allocated/findAll (%d employees x %d shifts)%n",
+                name, millisPerRound, mbPerRound, EMPLOYEES, SHIFTS_PER_EMPLOYEE);
+    }
+
+    /** The Document -> Employee mapping MongoEmployeeRepository used before EmployeeCodec. */
+    private static Employee fromDocument(Document d) {
+        List<Shift> shifts = new ArrayList<>();
+        for (Document sd : d.getList("shifts", Document.class, new ArrayList<>())) {
+            Object rawId = sd.get("id");
+            String id = rawId instanceof Binary ? ShiftIds.fromBytes(((Binary) rawId).getData()) : (String) rawId;
+            shifts.add(new Shift(id, ((Date) sd.get("start")).toInstant(), ((Date) sd.get("end")).toInstant()));
+        }
+        Employee e = new Employee(d.getString("name"), d.getString("employeeId"), d.getString("role"), shifts);
+        e.markPersisted(e.pendingChanges());
+        return e;
+    }
+}
@@ -3,9 +3,19 @@ package it.unifi.attsw.employee_shift_scheduler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
 
 class InMemoryEmployeeRepositoryTest {
 
@@ -33,4 +43,192 @@ class InMemoryEmployeeRepositoryTest {
         repo.save(new Employee("Sara","E002","manager"));
         assertEquals(2, repo.findAll().size());
     }
+
+    @Test
+    void returnedEmployees_shouldBeCopies_untilSaved() {
+        repo.save(new Employee("Ali","E001","cashier"));
+        Employee loaded = repo.findById("E001").orElseThrow();
+        loaded.addShift(new Shift("S1", Instant.parse("2025-01-06T09:00:00Z"), Instant.parse("2025-01-06T12:00:00Z")));
+
+        assertTrue(repo.findById("E001").orElseThrow().getScheduledShifts().isEmpty());
+        repo.save(loaded);
+        assertEquals(1, repo.findById("E001").orElseThrow().getScheduledShifts().size());
+    }
+
+    @Test
+    void findAll_shouldKeepInsertionOrder_acrossUpdatesAndDeletes() {
+        repo.save(new Employee("A","E1","r"));
+        repo.save(new Employee("B","E2","r"));
+        repo.save(new Employee("C","E3","r"));
+        repo.save(new Employee("A2","E1","r"));
+        repo.deleteById("E2");
+        repo.save(new Employee("B2","E2","r"));
+
+        assertEquals(List.of("E1", "E3", "E2"), repo.findAll().stream().map(Employee::getEmployeeId).toList());
+        assertEquals("A2", repo.findAll().get(0).getName());
+    }
+
+    @Test
+    void concurrentSavesAndReads_shouldNotLoseOrCorruptEntries() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        repo.save(new Employee("N", "T" + thread + "-" + i, "r"));
+                        assertFalse(repo.findAll().isEmpty());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(4000, repo.findAll().size());
+    }
+
+    @Test
+    void bulkOperations_shouldBehaveLikeSingleOnes() {
+        repo.saveAll(List.of(new Employee("A","E1","r"), new Employee("B","E2","r"), new Employee("C","E3","r")));
+
+        assertEquals(List.of("E3", "E1"),
+                repo.findAllById(List.of("E3", "X", "E1")).stream().map(Employee::getEmployeeId).toList());
+        repo.deleteAllById(List.of("E1", "E3"));
+        assertEquals(List.of("E2"), repo.findAll().stream().map(Employee::getEmployeeId).toList());
+    }
+
+    @Test
+    void concurrentAddShiftIfNoConflict_shouldKeepEveryNonOverlappingShift() throws Exception {
+        repo.save(new Employee("A", "E1", "r"));
+        Instant base = Instant.parse("2025-12-01T00:00:00Z");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                // pairs of identical shifts: exactly one of each pair can win
+                Instant start = base.plusSeconds(3600L * (i / 2));
+                futures.add(pool.submit(() ->
+                        repo.addShiftIfNoConflict("E1", new Shift(start, start.plusSeconds(1800))).isPresent()));
+            }
+            int added = 0;
+            for (Future<Boolean> f : futures) if (f.get()) added++;
+            assertEquals(8, added);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(8, repo.findById("E1").orElseThrow().getScheduledShifts().size());
+        assertFalse(repo.addShiftIfNoConflict("missing", new Shift(base, base.plusSeconds(60))).isPresent());
+    }
+
+    @Test
+    void findEmployeesWithShiftsBetween_shouldReturnOnlyEmployeesWorkingInTheWindow() {
+        Instant monday = Instant.parse("2025-12-01T09:00:00Z");
+        Employee early = new Employee("A", "E1", "r");
+        early.addShift(new Shift(monday, monday.plusSeconds(4 * 3600)));
+        Employee late = new Employee("B", "E2", "r");
+        late.addShift(new Shift(monday.plusSeconds(86_400), monday.plusSeconds(86_400 + 3600)));
+        repo.saveAll(List.of(early, late, new Employee("C", "E3", "r")));
+
+        assertEquals(List.of("E1"), repo.findEmployeesWithShiftsBetween(monday.plusSeconds(3600), monday.plusSeconds(7200))
+                .stream().map(Employee::getEmployeeId).toList());
+        assertEquals(List.of("E1", "E2"), repo.findEmployeesWithShiftsBetween(monday, monday.plusSeconds(2 * 86_400))
+                .stream().map(Employee::getEmployeeId).toList());
+    }
+
+    @Test
+    void findAllSummaries_shouldCountShiftsAndWeekHours() {
+        Employee a = new Employee("A", "E1", "cook");
+        a.addShift(new Shift(Instant.parse("2025-11-04T10:00:00Z"), Instant.parse("2025-11-04T16:00:00Z")));
+        a.addShift(new Shift(Instant.parse("2025-11-12T10:00:00Z"), Instant.parse("2025-11-12T12:00:00Z")));
+        repo.saveAll(List.of(a, new Employee("B", "E2", "waiter")));
+
+        List<EmployeeSummary> summaries = repo.findAllSummaries(YearWeek.of(2025, 45));
+
+        assertEquals(List.of(new EmployeeSummary("E1", "A", "cook", 2, YearWeek.of(2025, 45), 360),
+                new EmployeeSummary("E2", "B", "waiter", 0, YearWeek.of(2025, 45), 0)), summaries);
+        assertEquals(6.0, summaries.get(0).getWeekHours());
+    }
+
+    @Test
+    void streamByRole_shouldStreamMatchingEmployeesInOrder() {
+        repo.saveAll(List.of(new Employee("A", "E1", "cook"), new Employee("B", "E2", "waiter"), new Employee("C", "E3", "cook")));
+
+        try (Stream<Employee> cooks = repo.streamByRole("cook")) {
+            assertEquals(List.of("E1", "E3"), cooks.map(Employee::getEmployeeId).toList());
+        }
+        try (Stream<Employee> all = repo.streamAll()) {
+            assertEquals(3, all.count());
+        }
+    }
+
+    @Test
+    void findPage_shouldSeekAfterTheGivenIdInBothDirections() {
+        for (String id : List.of("E4", "E1", "E5", "E3", "E2")) {
+            repo.save(new Employee("N" + id, id, "r"));
+        }
+        repo.deleteById("E3");
+
+        assertEquals(List.of("E1", "E2"), ids(repo.findPage(null, 2, EmployeeSort.ID_ASCENDING)));
+        assertEquals(List.of("E4", "E5"), ids(repo.findPage("E2", 2, EmployeeSort.ID_ASCENDING)));
+        assertEquals(List.of(), ids(repo.findPage("E5", 2, EmployeeSort.ID_ASCENDING)));
+        assertEquals(List.of("E2", "E1"), ids(repo.findPage("E4", 5, EmployeeSort.ID_DESCENDING)));
+        assertThrows(IllegalArgumentException.class, () -> repo.findPage(null, 0, EmployeeSort.ID_ASCENDING));
+    }
+
+    private static List<String> ids(List<EmployeeSummary> page) {
+        return page.stream().map(EmployeeSummary::getEmployeeId).toList();
+    }
+
+    @Test
+    void findVersions_shouldChangeOnEveryWriteAndNeverRepeat() {
+        repo.save(new Employee("Ali", "E001", "cashier"));
+        long first = repo.findVersions(List.of("E001", "E404")).get("E001");
+
+        repo.addShiftIfNoConflict("E001", new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        long second = repo.findVersions(List.of("E001")).get("E001");
+        repo.deleteById("E001");
+        repo.save(new Employee("Ali", "E001", "cashier"));
+        long third = repo.findVersions(List.of("E001")).get("E001");
+
+        assertTrue(first < second && second < third);
+        assertEquals(third, repo.findById("E001").orElseThrow().getVersion());
+        assertFalse(repo.findVersions(List.of("E404")).containsKey("E404"));
+    }
+
+    @Test
+    void saveIfUnchanged_shouldWriteOnlyOverTheVersionThatWasRead() {
+        assertTrue(repo.saveIfUnchanged(new Employee("Ali", "E001", "cashier")));
+        assertFalse(repo.saveIfUnchanged(new Employee("Ali 2", "E001", "cashier")));   // created meanwhile
+
+        Employee mine = repo.findById("E001").orElseThrow();
+        Employee theirs = repo.findById("E001").orElseThrow();
+        theirs.addShift(new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        assertTrue(repo.saveIfUnchanged(theirs));
+        mine.addShift(new Shift("S2", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+
+        assertFalse(repo.saveIfUnchanged(mine));
+        assertEquals(List.of("S1"), repo.findById("E001").orElseThrow().getScheduledShifts().stream()
+                .map(Shift::getId).toList());
+        assertEquals(repo.findVersions(List.of("E001")).get("E001"), theirs.getVersion());
+    }
+
+    @Test
+    void loadShiftStore_shouldAppendFromAStreamItCloses() {
+        Employee ali = new Employee("Ali", "E001", "cashier");
+        ali.addShift(new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        repo.save(ali);
+        repo.save(new Employee("Sara", "E002", "manager"));
+        AtomicBoolean closed = new AtomicBoolean();
+        InMemoryEmployeeRepository streaming = spy(repo);
+        doAnswer(inv -> repo.streamAll().onClose(() -> closed.set(true))).when(streaming).streamAll();
+
+        ShiftStore store = streaming.loadShiftStore();
+
+        assertTrue(closed.get());
+        assertEquals(2, store.employeeCount());
+        assertEquals(List.of("S1"), store.shiftsOf("E001").stream().map(Shift::getId).toList());
+        assertTrue(store.shiftsOf("E002").isEmpty());
+    }
 }
@@ -0,0 +1,46 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentTreeMapTest {
+
+    @Test
+    void putAndRemove_shouldMatchTreeMap_andKeepOldVersions() {
+        Random rnd = new Random(7);
+        PersistentTreeMap<Integer, String> map = PersistentTreeMap.empty();
+        TreeMap<Integer, String> reference = new TreeMap<>();
+        PersistentTreeMap<Integer, String> checkpoint = null;
+        int checkpointSize = 0;
+
+        for (int i = 0; i < 5000; i++) {
+            int key = rnd.nextInt(1000);
+            if (rnd.nextBoolean()) {
+                map = map.put(key, "v" + i);
+                reference.put(key, "v" + i);
+            } else {
+                map = map.remove(key);
+                reference.remove(key);
+            }
+            if (i == 2500) {
+                checkpoint = map;
+                checkpointSize = reference.size();
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        List<Integer> keys = new ArrayList<>();
+        map.forEach((k, v) -> {
+            keys.add(k);
+            assertEquals(reference.get(k), v);
+        });
+        assertEquals(new ArrayList<>(reference.keySet()), keys);
+        assertEquals(checkpointSize, checkpoint.size());
+    }
+}
@@ -0,0 +1,95 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+
+import static java.time.DayOfWeek.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurringShiftTest {
+
+    private static RecurringShift.Builder monToFri(LocalDate from) {
+        return RecurringShift.builder("R1", EnumSet.range(MONDAY, FRIDAY), LocalTime.of(9, 0), Duration.ofHours(8), from)
+                .zone(ZoneOffset.UTC);
+    }
+
+    @Test
+    void occurrencesBetween_shouldExpandOnlyTheWindow() {
+        RecurringShift r = monToFri(LocalDate.of(2025, 3, 5)).build(); // a Wednesday
+
+        List<Shift> firstWeek = r.occurrencesBetween(Instant.parse("2025-03-03T00:00:00Z"), Instant.parse("2025-03-10T00:00:00Z"));
+        List<Shift> farAway = r.occurrencesBetween(Instant.parse("2035-03-05T12:00:00Z"), Instant.parse("2035-03-05T13:00:00Z"));
+
+        assertEquals(List.of("R1@2025-03-05", "R1@2025-03-06", "R1@2025-03-07"),
+                firstWeek.stream().map(Shift::getId).toList());
+        assertEquals(Instant.parse("2025-03-05T09:00:00Z"), firstWeek.get(0).getStart());
+        assertEquals(Instant.parse("2025-03-05T17:00:00Z"), firstWeek.get(0).getEnd());
+        assertEquals(1, farAway.size());
+        assertEquals(Instant.MAX, r.spanEnd());
+    }
+
+    @Test
+    void countAndUntil_shouldBoundTheSeries() {
+        RecurringShift byCount = monToFri(LocalDate.of(2025, 3, 5)).count(5).build();
+        RecurringShift byUntil = monToFri(LocalDate.of(2025, 3, 3)).until(LocalDate.of(2025, 3, 9)).build();
+
+        assertTrue(byCount.occursOn(LocalDate.of(2025, 3, 11)));   // 5th: Wed, Thu, Fri, Mon, Tue
+        assertFalse(byCount.occursOn(LocalDate.of(2025, 3, 12)));
+        assertEquals(Instant.parse("2025-03-11T17:00:00Z"), byCount.spanEnd());
+        assertEquals(Instant.parse("2025-03-07T17:00:00Z"), byUntil.spanEnd());
+    }
+
+    @Test
+    void count_shouldRejectNegativeValuesAndTreatZeroAsUnbounded() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> monToFri(LocalDate.of(2025, 3, 5)).count(-1).build());
+        RecurringShift unbounded = monToFri(LocalDate.of(2025, 3, 5)).count(0).build();
+
+        assertEquals("count must not be negative (0 = unbounded)", ex.getMessage());
+        assertEquals(Instant.MAX, unbounded.spanEnd());
+        assertTrue(unbounded.occursOn(LocalDate.of(2035, 3, 5)));
+    }
+
+    @Test
+    void interval_shouldSkipInactiveWeeks() {
+        RecurringShift r = RecurringShift.builder("R2", EnumSet.of(SATURDAY), LocalTime.of(10, 0), Duration.ofHours(4),
+                LocalDate.of(2025, 3, 1)).zone(ZoneOffset.UTC).everyWeeks(2).count(3).build();
+
+        assertTrue(r.occursOn(LocalDate.of(2025, 3, 1)));
+        assertFalse(r.occursOn(LocalDate.of(2025, 3, 8)));
+        assertTrue(r.occursOn(LocalDate.of(2025, 3, 15)));
+        assertTrue(r.occursOn(LocalDate.of(2025, 3, 29)));
+        assertFalse(r.occursOn(LocalDate.of(2025, 4, 12)));
+    }
+
+    @Test
+    void occurrences_shouldFollowLocalTimeAcrossDst() {
+        RecurringShift r = RecurringShift.builder("R3", EnumSet.of(MONDAY), LocalTime.of(9, 0), Duration.ofHours(8),
+                LocalDate.of(2025, 3, 24)).zone(ZoneId.of("Europe/Rome")).build();
+
+        assertEquals(Instant.parse("2025-03-24T08:00:00Z"), r.occurrenceOn(LocalDate.of(2025, 3, 24)).getStart());
+        assertEquals(Instant.parse("2025-03-31T07:00:00Z"), r.occurrenceOn(LocalDate.of(2025, 3, 31)).getStart());
+    }
+
+    @Test
+    void builder_shouldRejectInvalidTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> RecurringShift.builder("a@b", EnumSet.of(MONDAY),
+                LocalTime.NOON, Duration.ofHours(1), LocalDate.of(2025, 1, 1)).build());
+        assertThrows(IllegalArgumentException.class, () -> RecurringShift.builder("R", EnumSet.noneOf(DayOfWeek.class),
+                LocalTime.NOON, Duration.ofHours(1), LocalDate.of(2025, 1, 1)).build());
+        assertThrows(IllegalArgumentException.class, () -> RecurringShift.builder("R", EnumSet.of(MONDAY),
+                LocalTime.NOON, Duration.ofHours(25), LocalDate.of(2025, 1, 1)).build());
+        // 2025-01-01 is a Wednesday: no Monday before the end date
+        assertThrows(IllegalArgumentException.class, () -> RecurringShift.builder("R", EnumSet.of(MONDAY),
+                LocalTime.NOON, Duration.ofHours(1), LocalDate.of(2025, 1, 1)).until(LocalDate.of(2025, 1, 5)).build());
+    }
+}
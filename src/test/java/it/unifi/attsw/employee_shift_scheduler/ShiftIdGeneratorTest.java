@@ -0,0 +1,57 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShiftIdGeneratorTest {
+
+    @Test
+    void timeOrdered_shouldProduceVersion7UuidsIncreasingWithinThread() {
+        ShiftIdGenerator gen = ShiftIdGenerator.timeOrdered();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(gen.nextId());
+        }
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "ids must be increasing");
+        }
+        UUID uuid = UUID.fromString(ids.get(0));
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void timeOrdered_shouldBeUniqueAcrossThreads() {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel()
+                .forEach(i -> assertTrue(seen.add(ShiftIdGenerator.timeOrdered().nextId())));
+        assertEquals(100_000, seen.size());
+    }
+
+    @Test
+    void shiftIds_shouldRoundTripCanonicalUuids_andRejectOtherIds() {
+        String id = ShiftIdGenerator.randomUuid().nextId();
+        byte[] bytes = ShiftIds.toBytes(id);
+        assertEquals(16, bytes.length);
+        assertEquals(id, ShiftIds.fromBytes(bytes));
+
+        assertNull(ShiftIds.toBytes("SH-100"));
+        assertNull(ShiftIds.toBytes(id.toUpperCase()));
+    }
+
+    @Test
+    void shiftConstructor_shouldUseGivenGenerator() {
+        Shift s = new Shift(() -> "fixed-id",
+                Instant.parse("2025-11-24T08:00:00Z"), Instant.parse("2025-11-24T12:00:00Z"), "n");
+        assertEquals("fixed-id", s.getId());
+    }
+}
@@ -0,0 +1,102 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShiftIntervalTreeTest {
+
+    private static final Instant BASE = Instant.parse("2025-01-06T00:00:00Z");
+
+    private static Shift shift(String id, long startMinute, long endMinute) {
+        return new Shift(id, BASE.plusSeconds(startMinute * 60), BASE.plusSeconds(endMinute * 60));
+    }
+
+    @Test
+    void asList_shouldBeOrderedByStart() {
+        ShiftIntervalTree tree = ShiftIntervalTree.EMPTY
+                .insert(shift("c", 300, 360))
+                .insert(shift("a", 0, 60))
+                .insert(shift("b", 120, 180));
+
+        List<Shift> view = tree.asList();
+        assertEquals(3, view.size());
+        assertEquals("a", view.get(0).getId());
+        assertEquals("b", view.get(1).getId());
+        assertEquals("c", view.get(2).getId());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(shift("d", 400, 460)));
+    }
+
+    @Test
+    void findOverlap_shouldTreatEndAsExclusive() {
+        ShiftIntervalTree tree = ShiftIntervalTree.EMPTY.insert(shift("a", 60, 120));
+
+        assertNull(tree.findOverlap(BASE, BASE.plusSeconds(60 * 60)));
+        assertNull(tree.findOverlap(BASE.plusSeconds(120 * 60), BASE.plusSeconds(180 * 60)));
+        assertEquals("a", tree.findOverlap(BASE.plusSeconds(119 * 60), BASE.plusSeconds(180 * 60)).getId());
+    }
+
+    @Test
+    void findOverlapAndRemove_shouldMatchLinearScan() {
+        Random rnd = new Random(42);
+        ShiftIntervalTree tree = ShiftIntervalTree.EMPTY;
+        List<Shift> reference = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long start = rnd.nextInt(100_000);
+            Shift s = shift("s" + i, start, start + 1 + rnd.nextInt(600));
+            tree = tree.insert(s);
+            reference.add(s);
+        }
+        for (int i = 0; i < 500; i++) {
+            Shift victim = reference.remove(rnd.nextInt(reference.size()));
+            ShiftIntervalTree before = tree;
+            tree = tree.remove(victim);
+            assertEquals(before.size() - 1, tree.size());
+        }
+        assertEquals(reference.size(), tree.size());
+
+        for (int i = 0; i < 2000; i++) {
+            long start = rnd.nextInt(100_000);
+            Instant qs = BASE.plusSeconds(start * 60);
+            Instant qe = BASE.plusSeconds((start + 1 + rnd.nextInt(300)) * 60);
+            boolean expected = reference.stream()
+                    .anyMatch(s -> s.getStart().isBefore(qe) && qs.isBefore(s.getEnd()));
+            assertEquals(expected, tree.findOverlap(qs, qe) != null);
+            List<Shift> expectedAll = reference.stream()
+                    .filter(s -> s.getStart().isBefore(qe) && qs.isBefore(s.getEnd()))
+                    .sorted(ShiftIntervalTree.ORDER)
+                    .toList();
+            assertEquals(expectedAll, tree.findOverlapping(qs, qe));
+        }
+    }
+
+    @Test
+    void insertAndRemove_shouldLeavePreviousVersionUntouched() {
+        ShiftIntervalTree v1 = ShiftIntervalTree.EMPTY.insert(shift("a", 0, 60));
+        ShiftIntervalTree v2 = v1.insert(shift("b", 120, 180));
+        ShiftIntervalTree v3 = v2.remove(shift("a", 0, 60));
+
+        assertEquals(1, v1.size());
+        assertEquals(2, v2.size());
+        assertEquals(List.of("b"), v3.asList().stream().map(Shift::getId).toList());
+        assertSame(v3, v3.remove(shift("zzz", 0, 1)));
+    }
+
+    @Test
+    void fromSorted_shouldBuildSearchableTree() {
+        List<Shift> sorted = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            sorted.add(shift("s" + i, i * 10L, i * 10L + 5));
+        }
+        ShiftIntervalTree tree = ShiftIntervalTree.fromSorted(sorted);
+
+        assertEquals(sorted, tree.asList());
+        assertEquals("s500", tree.findOverlap(BASE.plusSeconds(5002 * 60), BASE.plusSeconds(5003 * 60)).getId());
+        assertNull(tree.findOverlap(BASE.plusSeconds(5006 * 60), BASE.plusSeconds(5010 * 60)));
+    }
+}
@@ -0,0 +1,52 @@
+package it.unifi.attsw.employee_shift_scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShiftStoreTest {
+
+    @Test
+    void views_shouldRoundTripShiftFields() {
+        Employee ali = new Employee("Ali", "E001", "cashier");
+        String uuid = UUID.randomUUID().toString();
+        ali.addShift(new Shift(uuid, Instant.parse("2025-11-24T08:00:00Z"), Instant.parse("2025-11-24T12:00:00Z"), "open"));
+        ali.addShift(new Shift("SH-2", Instant.parse("2025-11-25T08:00:00.250Z"), Instant.parse("2025-11-25T12:00:00Z")));
+        Employee sara = new Employee("Sara", "E002", "manager");
+
+        ShiftStore store = ShiftStore.of(List.of(ali, sara));
+
+        assertEquals(2, store.size());
+        assertEquals(2, store.employeeCount());
+        assertEquals(0, store.ordinalOf("E001"));
+        assertEquals(-1, store.ordinalOf("E999"));
+
+        Shift first = store.view(0);
+        assertEquals(ali.getScheduledShifts().get(0), first);
+        assertEquals(uuid, first.getId());
+        assertEquals("open", first.getNotes());
+        assertEquals(Instant.parse("2025-11-24T08:00:00Z").getEpochSecond(), store.startEpochSecond(0));
+
+        Shift second = store.view(1);
+        assertEquals("SH-2", second.getId());
+        assertEquals(Instant.parse("2025-11-25T08:00:00.250Z"), second.getStart());
+        assertTrue(second.equals(ali.getScheduledShifts().get(1)));
+        assertFalse(first.overlaps(second));
+    }
+
+    @Test
+    void shiftsOf_shouldReturnOnlyThatEmployeesRows() {
+        ShiftStore store = new ShiftStore();
+        store.add("E001", new Shift("a", Instant.parse("2025-11-24T08:00:00Z"), Instant.parse("2025-11-24T12:00:00Z")));
+        store.add("E002", new Shift("b", Instant.parse("2025-11-24T08:00:00Z"), Instant.parse("2025-11-24T12:00:00Z")));
+        store.add("E001", new Shift("c", Instant.parse("2025-11-25T08:00:00Z"), Instant.parse("2025-11-25T12:00:00Z")));
+
+        assertEquals(List.of("a", "c"), store.shiftsOf("E001").stream().map(Shift::getId).toList());
+        assertEquals(1, store.employeeOrdinal(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.view(3));
+    }
+}
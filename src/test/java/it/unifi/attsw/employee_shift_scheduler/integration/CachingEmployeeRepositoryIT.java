@@ -0,0 +1,83 @@
+package it.unifi.attsw.employee_shift_scheduler.integration;
+
+import it.unifi.attsw.employee_shift_scheduler.CachingEmployeeRepository;
+import it.unifi.attsw.employee_shift_scheduler.Employee;
+import it.unifi.attsw.employee_shift_scheduler.MongoEmployeeRepository;
+import it.unifi.attsw.employee_shift_scheduler.Shift;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import org.junit.jupiter.api.*;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Testcontainers
+public class CachingEmployeeRepositoryIT {
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:6.0");
+
+    private static final Duration TTL = Duration.ofMillis(50);
+
+    private MongoClient mongoClient;
+    private MongoDatabase testDb;
+    private MongoEmployeeRepository mongo;
+    private CachingEmployeeRepository repo;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(MONGO.getReplicaSetUrl());
+        testDb = mongoClient.getDatabase("it_caching_db");
+        testDb.getCollection("employees").drop();
+
+        mongo = spy(new MongoEmployeeRepository(testDb));
+        repo = new CachingEmployeeRepository(mongo, 100, TTL);
+        repo.setRevalidating(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (testDb != null) testDb.getCollection("employees").drop();
+        if (mongoClient != null) mongoClient.close();
+    }
+
+    @Test
+    void save_thenExpire_shouldRevalidateWithoutReloading() throws InterruptedException {
+        repo.save(new Employee("Cached", "EMP_C_1", "R"));
+        Employee loaded = repo.findById("EMP_C_1").orElseThrow();
+        loaded.addShift(new Shift("C-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        repo.save(loaded);   // delta write
+
+        Thread.sleep(TTL.toMillis() * 2);
+
+        assertThat(repo.findById("EMP_C_1").orElseThrow().getScheduledShifts()).extracting(Shift::getId)
+                .containsExactly("C-1");
+        verify(mongo, never()).findById(anyString());
+        verify(mongo, never()).findAllById(any());
+        assertThat(repo.stats().getRevalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void writeByAnotherInstance_shouldBeReloadedAfterExpiry() throws InterruptedException {
+        repo.save(new Employee("Cached", "EMP_C_2", "R"));
+        MongoEmployeeRepository other = new MongoEmployeeRepository(testDb, false);
+        Employee elsewhere = other.findById("EMP_C_2").orElseThrow();
+        elsewhere.addShift(new Shift("C-2", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        other.save(elsewhere);
+
+        Thread.sleep(TTL.toMillis() * 2);
+
+        assertThat(repo.findById("EMP_C_2").orElseThrow().getScheduledShifts()).extracting(Shift::getId)
+                .containsExactly("C-2");
+        verify(mongo, times(1)).findById("EMP_C_2");
+    }
+}
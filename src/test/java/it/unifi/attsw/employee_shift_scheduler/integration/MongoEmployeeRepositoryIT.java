@@ -1,20 +1,36 @@
 package it.unifi.attsw.employee_shift_scheduler.integration;
 
 import it.unifi.attsw.employee_shift_scheduler.Employee;
+import it.unifi.attsw.employee_shift_scheduler.EmployeeSort;
+import it.unifi.attsw.employee_shift_scheduler.EmployeeSummary;
 import it.unifi.attsw.employee_shift_scheduler.MongoEmployeeRepository;
+import it.unifi.attsw.employee_shift_scheduler.RecurringShift;
 import it.unifi.attsw.employee_shift_scheduler.Shift;
+import it.unifi.attsw.employee_shift_scheduler.ShiftDateMigration;
+import it.unifi.attsw.employee_shift_scheduler.ShiftStore;
+import it.unifi.attsw.employee_shift_scheduler.YearWeek;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
 import org.junit.jupiter.api.*;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -80,4 +96,389 @@ public class MongoEmployeeRepositoryIT {
         List<Employee> allAfter = repo.findAll();
         assertThat(allAfter).extracting(Employee::getEmployeeId).doesNotContain("EMP_R_02");
     }
+
+    @Test
+    void recurringShifts_shouldBeStoredOnceAndRoundTrip() {
+        Employee e = new Employee("Rec", "EMP_R_04", "R");
+        RecurringShift template = RecurringShift.builder("WEEKDAYS", EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY),
+                        LocalTime.of(9, 0), Duration.ofHours(7), LocalDate.of(2025, 1, 6))
+                .zone(ZoneId.of("Europe/Rome")).everyWeeks(2).until(LocalDate.of(2025, 12, 31)).notes("front desk")
+                .build();
+        e.addRecurringShift(template);
+
+        repo.save(e);
+
+        Employee loaded = repo.findById("EMP_R_04").orElseThrow();
+        assertThat(loaded.getRecurringShifts()).containsExactly(template);
+        assertThat(loaded.getScheduledShifts()).isEmpty();
+        assertThat(testDb.getCollection("employees").find().first().getList("recurring", Object.class)).hasSize(1);
+    }
+
+    @Test
+    void bulkOperations_shouldUpsertFindAndDeleteInBatches() {
+        repo.setBatchSize(2);
+        Employee existing = new Employee("Old", "EMP_B_1", "R");
+        repo.save(existing);
+        List<Employee> batch = List.of(new Employee("New", "EMP_B_1", "R"),
+                new Employee("B2", "EMP_B_2", "R"), new Employee("B3", "EMP_B_3", "R"));
+
+        repo.saveAll(batch);
+
+        assertThat(testDb.getCollection("employees").countDocuments()).isEqualTo(3);
+        assertThat(repo.findAllById(List.of("EMP_B_3", "missing", "EMP_B_1")))
+                .extracting(Employee::getName).containsExactly("B3", "New");
+        repo.deleteAllById(List.of("EMP_B_1", "EMP_B_2"));
+        assertThat(repo.findAll()).extracting(Employee::getEmployeeId).containsExactly("EMP_B_3");
+    }
+
+    @Test
+    void save_ofLoadedEmployee_shouldOnlySendTheDelta() {
+        Employee e = new Employee("Delta", "EMP_D_1", "R");
+        e.addShift(new Shift("D-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        e.addShift(new Shift("D-2", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+        repo.save(e);
+        // a field the repository does not know about survives only if the document is not replaced
+        testDb.getCollection("employees").updateOne(new Document("employeeId", "EMP_D_1"),
+                new Document("$set", new Document("marker", true)));
+
+        Employee loaded = repo.findById("EMP_D_1").orElseThrow();
+        assertThat(loaded.pendingChanges().isEmpty()).isTrue();
+        loaded.removeShiftById("D-1");
+        loaded.addShift(new Shift("D-3", Instant.parse("2025-11-05T08:00:00Z"), Instant.parse("2025-11-05T12:00:00Z")));
+        repo.save(loaded);
+
+        Document stored = testDb.getCollection("employees").find().first();
+        assertThat(stored.getBoolean("marker")).isTrue();
+        assertThat(repo.findById("EMP_D_1").orElseThrow().getScheduledShifts())
+                .extracting(Shift::getId).containsExactly("D-2", "D-3");
+        assertThat(loaded.pendingChanges().isEmpty()).isTrue();
+    }
+
+    @Test
+    void save_ofEmployeeDeletedElsewhere_shouldFailInsteadOfRecreatingIt() {
+        repo.save(new Employee("Gone", "EMP_G_1", "R"));
+        repo.save(new Employee("Gone too", "EMP_G_2", "R"));
+        Employee delta = repo.findById("EMP_G_1").orElseThrow();
+        Employee structural = repo.findById("EMP_G_2").orElseThrow();
+        repo.deleteAllById(List.of("EMP_G_1", "EMP_G_2"));   // another client
+
+        delta.addShift(new Shift("G-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        structural.setScheduledShifts(List.of());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> repo.save(delta));
+        Assertions.assertThrows(IllegalStateException.class, () -> repo.save(structural));
+        Assertions.assertThrows(IllegalStateException.class, () -> repo.saveAll(List.of(delta, structural)));
+        assertThat(testDb.getCollection("employees").countDocuments()).isZero();
+        assertThat(delta.pendingChanges().isEmpty()).isFalse();
+    }
+
+    @Test
+    void saveIfUnchanged_shouldWriteOnlyOverTheVersionThatWasRead() {
+        assertThat(repo.saveIfUnchanged(new Employee("Opt", "EMP_O_1", "R"))).isTrue();
+        assertThat(repo.saveIfUnchanged(new Employee("Opt 2", "EMP_O_1", "R"))).isFalse();   // created meanwhile
+
+        Employee mine = repo.findById("EMP_O_1").orElseThrow();
+        Employee theirs = repo.findById("EMP_O_1").orElseThrow();
+        theirs.addShift(new Shift("O-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        assertThat(repo.saveIfUnchanged(theirs)).isTrue();
+        mine.addShift(new Shift("O-2", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+
+        assertThat(repo.saveIfUnchanged(mine)).isFalse();
+        assertThat(mine.pendingChanges().isEmpty()).isFalse();
+        Employee stored = repo.findById("EMP_O_1").orElseThrow();
+        assertThat(stored.getName()).isEqualTo("Opt");
+        assertThat(stored.getScheduledShifts()).extracting(Shift::getId).containsExactly("O-1");
+        assertThat(stored.getVersion()).isEqualTo(theirs.getVersion());
+    }
+
+    @Test
+    void addShiftIfNoConflict_shouldCheckOverlapsAndWeeklyLimitServerSide() {
+        repo.save(new Employee("Atomic", "EMP_A_1", "R"));
+        for (int day = 3; day <= 7; day++) {
+            Instant start = Instant.parse("2025-11-0" + day + "T10:00:00Z");
+            assertThat(repo.addShiftIfNoConflict("EMP_A_1", new Shift("A-" + day, start, start.plus(Duration.ofHours(8)))))
+                    .isPresent();
+        }
+
+        Instant overlapping = Instant.parse("2025-11-03T17:00:00Z");
+        assertThat(repo.addShiftIfNoConflict("EMP_A_1", new Shift("A-x", overlapping, overlapping.plus(Duration.ofHours(2)))))
+                .isEmpty();
+        Instant overLimit = Instant.parse("2025-11-05T20:00:00Z");   // 40h already booked this week
+        assertThat(repo.addShiftIfNoConflict("EMP_A_1", new Shift("A-y", overLimit, overLimit.plus(Duration.ofHours(1)))))
+                .isEmpty();
+        Instant nextWeek = Instant.parse("2025-11-12T10:00:00Z");
+        Optional<Employee> updated = repo.addShiftIfNoConflict("EMP_A_1", new Shift("A-z", nextWeek, nextWeek.plus(Duration.ofHours(8))));
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getScheduledShifts()).hasSize(6);
+        assertThat(updated.get().pendingChanges().isEmpty()).isTrue();
+
+        assertThat(repo.addShiftIfNoConflict("missing", new Shift("A-m", nextWeek, nextWeek.plusSeconds(60)))).isEmpty();
+    }
+
+    @Test
+    void addShiftIfNoConflict_shouldDeclineDuplicateShiftIds() {
+        Employee e = new Employee("Dup", "EMP_A_3", "R");
+        String uuid = "2f1c7d3e-4b5a-4c6d-8e9f-0a1b2c3d4e5f";   // stored as binary
+        e.addShift(new Shift("S1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T10:00:00Z")));
+        e.addShift(new Shift(uuid, Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T10:00:00Z")));
+        repo.save(e);
+
+        Instant later = Instant.parse("2025-11-05T08:00:00Z");
+        assertThat(repo.addShiftIfNoConflict("EMP_A_3", new Shift("S1", later, later.plus(Duration.ofHours(1))))).isEmpty();
+        assertThat(repo.addShiftIfNoConflict("EMP_A_3", new Shift(uuid, later, later.plus(Duration.ofHours(1))))).isEmpty();
+
+        assertThat(testDb.getCollection("employees").find().first().getList("shifts", Object.class)).hasSize(2);
+        assertThat(repo.findById("EMP_A_3").orElseThrow().getScheduledShifts())
+                .extracting(Shift::getId).containsExactly("S1", uuid);
+    }
+
+    @Test
+    void addShiftIfNoConflict_shouldDeclineEmployeesWithRecurringTemplates() {
+        Employee e = new Employee("Rec", "EMP_A_2", "R");
+        e.addRecurringShift(RecurringShift.builder("tpl", EnumSet.of(DayOfWeek.MONDAY), LocalTime.of(9, 0),
+                Duration.ofHours(4), LocalDate.of(2025, 11, 3)).zone(ZoneId.of("UTC")).build());
+        repo.save(e);
+
+        Instant start = Instant.parse("2025-11-04T09:00:00Z");
+        assertThat(repo.addShiftIfNoConflict("EMP_A_2", new Shift("A-r", start, start.plus(Duration.ofHours(1))))).isEmpty();
+        assertThat(repo.findById("EMP_A_2").orElseThrow().getScheduledShifts()).isEmpty();
+    }
+
+    @Test
+    void constructor_shouldEnsureIndexesIdempotently() {
+        new MongoEmployeeRepository(testDb).ensureIndexes();
+
+        List<String> names = new ArrayList<>();
+        for (Document index : testDb.getCollection("employees").listIndexes()) {
+            names.add(index.getString("name"));
+            if ("employeeId_unique".equals(index.getString("name"))) {
+                assertThat(index.getBoolean("unique")).isTrue();
+            }
+        }
+        assertThat(names).contains("employeeId_unique", "employeeId_version", "shifts_start_end", "recurring_id");
+    }
+
+    @Test
+    void findEmployeesWithShiftsBetween_shouldProjectOnlyMatchingShifts() {
+        Employee a = new Employee("A", "EMP_W_1", "R");
+        a.addShift(new Shift("W-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        a.addShift(new Shift("W-2", Instant.parse("2025-11-10T08:00:00Z"), Instant.parse("2025-11-10T12:00:00Z")));
+        Employee b = new Employee("B", "EMP_W_2", "R");
+        // ends half a second into the window: only an exact comparison finds it
+        b.addShift(new Shift("W-3", Instant.parse("2025-11-03T06:00:00Z"), Instant.parse("2025-11-03T10:00:00.500Z")));
+        Employee c = new Employee("C", "EMP_W_3", "R");
+        c.addShift(new Shift("W-4", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+        Employee d = new Employee("D", "EMP_W_4", "R");
+        d.addRecurringShift(RecurringShift.builder("tpl", EnumSet.of(DayOfWeek.MONDAY), LocalTime.of(11, 0),
+                Duration.ofHours(2), LocalDate.of(2025, 10, 6)).zone(ZoneId.of("UTC")).build());
+        repo.saveAll(List.of(a, b, c, d));
+
+        List<Employee> working = repo.findEmployeesWithShiftsBetween(
+                Instant.parse("2025-11-03T10:00:00Z"), Instant.parse("2025-11-03T14:00:00Z"));
+
+        assertThat(working).extracting(Employee::getEmployeeId).containsExactlyInAnyOrder("EMP_W_1", "EMP_W_2", "EMP_W_4");
+        Employee first = working.stream().filter(e -> e.getEmployeeId().equals("EMP_W_1")).findFirst().orElseThrow();
+        assertThat(first.getScheduledShifts()).extracting(Shift::getId).containsExactly("W-1");
+    }
+
+    @Test
+    void findEmployeesWithShiftsBetween_shouldAnswerEveryBranchFromIndexes() {
+        Employee a = new Employee("A", "EMP_X_1", "R");
+        a.addShift(new Shift("X-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        Employee b = new Employee("B", "EMP_X_2", "R");
+        b.addRecurringShift(RecurringShift.builder("tpl", EnumSet.of(DayOfWeek.MONDAY), LocalTime.of(11, 0),
+                Duration.ofHours(2), LocalDate.of(2025, 10, 6)).zone(ZoneId.of("UTC")).build());
+        List<Employee> idle = new ArrayList<>();
+        for (int i = 0; i < 50; i++) idle.add(new Employee("I" + i, "EMP_X_I" + i, "R"));
+        repo.saveAll(List.of(a, b));
+        repo.saveAll(idle);
+
+        // the profiler records the plan the server actually ran (same as explain's winning plan)
+        testDb.runCommand(new Document("profile", 2));
+        try {
+            assertThat(repo.findEmployeesWithShiftsBetween(Instant.parse("2025-11-03T10:00:00Z"),
+                    Instant.parse("2025-11-03T14:00:00Z"))).extracting(Employee::getEmployeeId)
+                    .containsExactlyInAnyOrder("EMP_X_1", "EMP_X_2");
+        } finally {
+            testDb.runCommand(new Document("profile", 0));
+        }
+
+        Document profiled = testDb.getCollection("system.profile")
+                .find(new Document("command.aggregate", "employees")).first();
+        assertThat(profiled).isNotNull();
+        assertThat(profiled.getString("planSummary")).contains("IXSCAN").doesNotContain("COLLSCAN");
+        assertThat(profiled.get("docsExamined", Number.class).intValue()).isLessThan(idle.size());
+    }
+
+    @Test
+    void save_shouldStoreShiftTimesAsDates_keepingSubMillisecondPrecision() {
+        Instant start = Instant.parse("2025-11-03T08:00:00.123456789Z");
+        Employee e = new Employee("Dates", "EMP_T_1", "R");
+        e.addShift(new Shift("T-1", start, start.plus(Duration.ofHours(2))));
+        repo.save(e);
+
+        Document stored = testDb.getCollection("employees").find().first();
+        assertThat(stored.getInteger("schemaVersion")).isEqualTo(2);
+        Document shift = stored.getList("shifts", Document.class).get(0);
+        assertThat(shift.get("start")).isInstanceOf(Date.class);
+        assertThat(repo.findById("EMP_T_1").orElseThrow().getScheduledShifts().get(0).getStart()).isEqualTo(start);
+    }
+
+    @Test
+    void dateMigration_shouldRewriteStringTimesInBatches() {
+        for (int i = 0; i < 5; i++) {
+            testDb.getCollection("employees").insertOne(new Document("employeeId", "EMP_M_" + i)
+                    .append("name", "Old").append("role", "R")
+                    .append("shifts", List.of(new Document("id", "M-" + i)
+                            .append("start", "2025-11-0" + (i + 3) + "T08:00:00Z")
+                            .append("end", "2025-11-0" + (i + 3) + "T12:00:00.250Z"))));
+        }
+        Employee before = repo.findById("EMP_M_2").orElseThrow();
+
+        ShiftDateMigration migration = repo.dateMigration(2);
+        assertThat(migration.migrateBatch()).isEqualTo(2);
+        assertThat(migration.remaining()).isEqualTo(3);
+        migration.run();
+
+        assertThat(migration.getMigratedCount()).isEqualTo(5);
+        assertThat(migration.remaining()).isZero();
+        Document stored = testDb.getCollection("employees").find(new Document("employeeId", "EMP_M_2")).first();
+        assertThat(stored.getList("shifts", Document.class).get(0).get("end")).isInstanceOf(Date.class);
+        assertThat(repo.findById("EMP_M_2").orElseThrow().getScheduledShifts())
+                .isEqualTo(before.getScheduledShifts());
+    }
+
+    @Test
+    void lazyLoading_shouldReturnEmployeesThatDecodeShiftsOnDemand() {
+        Employee e = new Employee("Lazy", "EMP_L_1", "R");
+        e.addShift(new Shift("L-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        repo.save(e);
+        repo.setLazyLoading(true);
+
+        Employee loaded = repo.findAll().get(0);
+        assertThat(loaded.getName()).isEqualTo("Lazy");
+        loaded.addShift(new Shift("L-2", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+        repo.save(loaded);
+
+        assertThat(repo.findById("EMP_L_1").orElseThrow().getScheduledShifts())
+                .extracting(Shift::getId).containsExactly("L-1", "L-2");
+    }
+
+    @Test
+    void findAllSummaries_shouldComputeCountsAndHoursServerSide() {
+        Employee a = new Employee("A", "EMP_S_1", "cook");
+        a.addShift(new Shift("S-1", Instant.parse("2025-11-04T10:00:00Z"), Instant.parse("2025-11-04T16:00:00Z")));
+        a.addShift(new Shift("S-2", Instant.parse("2025-11-12T10:00:00Z"), Instant.parse("2025-11-12T12:00:00Z")));
+        a.addRecurringShift(RecurringShift.builder("tpl", EnumSet.of(DayOfWeek.THURSDAY), LocalTime.of(10, 0),
+                Duration.ofHours(2), LocalDate.of(2025, 10, 2)).zone(ZoneId.of("UTC")).build());
+        repo.saveAll(List.of(a, new Employee("B", "EMP_S_2", "waiter")));
+
+        List<EmployeeSummary> summaries = repo.findAllSummaries(YearWeek.of(2025, 45));
+
+        assertThat(summaries).containsExactlyInAnyOrder(
+                EmployeeSummary.of(repo.findById("EMP_S_1").orElseThrow(), YearWeek.of(2025, 45)),
+                new EmployeeSummary("EMP_S_2", "B", "waiter", 0, YearWeek.of(2025, 45), 0));
+        assertThat(summaries).extracting(EmployeeSummary::getWeekHours).contains(8.0);
+    }
+
+    @Test
+    void streamAll_shouldFetchInBatchesAndCloseTheCursor() {
+        List<Employee> all = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            all.add(new Employee("N" + i, "EMP_ST_" + i, i % 2 == 0 ? "even" : "odd"));
+        }
+        repo.saveAll(all);
+        repo.setBatchSize(2);
+
+        try (Stream<Employee> stream = repo.streamAll()) {
+            assertThat(stream.map(Employee::getEmployeeId))
+                    .containsExactly("EMP_ST_0", "EMP_ST_1", "EMP_ST_2", "EMP_ST_3", "EMP_ST_4");
+        }
+        repo.setLazyLoading(true);
+        try (Stream<Employee> even = repo.streamByRole("even")) {
+            assertThat(even.map(Employee::getName).findFirst()).contains("N0");
+        }
+    }
+
+    @Test
+    void loadShiftStore_shouldReadProjectedShiftArraysInBatches() {
+        Employee a = new Employee("A", "EMP_LS_1", "cook");
+        a.addShift(new Shift("LS-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        a.addShift(new Shift("LS-2", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+        Employee b = new Employee("B", "EMP_LS_2", "cook");
+        b.addShift(new Shift("LS-3", Instant.parse("2025-11-03T14:00:00Z"), Instant.parse("2025-11-03T18:00:00Z")));
+        repo.saveAll(List.of(a, b, new Employee("C", "EMP_LS_3", "cook")));
+        repo.setBatchSize(2);
+
+        ShiftStore store = repo.loadShiftStore();
+
+        assertThat(store.employeeCount()).isEqualTo(3);
+        assertThat(store.shiftsOf("EMP_LS_1")).containsExactlyElementsOf(a.getScheduledShifts());
+        assertThat(store.shiftsOf("EMP_LS_2")).containsExactlyElementsOf(b.getScheduledShifts());
+        assertThat(store.shiftsOf("EMP_LS_3")).isEmpty();
+    }
+
+    @Test
+    void findPage_shouldSeekOnTheEmployeeIdIndex() {
+        List<Employee> all = new ArrayList<>();
+        for (String id : List.of("EMP_P_4", "EMP_P_1", "EMP_P_5", "EMP_P_3", "EMP_P_2")) {
+            all.add(new Employee("N", id, "R"));
+        }
+        repo.saveAll(all);
+
+        assertThat(repo.findPage(null, 2, EmployeeSort.ID_ASCENDING))
+                .extracting(EmployeeSummary::getEmployeeId).containsExactly("EMP_P_1", "EMP_P_2");
+        assertThat(repo.findPage("EMP_P_2", 2, EmployeeSort.ID_ASCENDING))
+                .extracting(EmployeeSummary::getEmployeeId).containsExactly("EMP_P_3", "EMP_P_4");
+        assertThat(repo.findPage("EMP_P_3", 10, EmployeeSort.ID_DESCENDING))
+                .extracting(EmployeeSummary::getEmployeeId).containsExactly("EMP_P_2", "EMP_P_1");
+    }
+
+    @Test
+    void findVersions_shouldChangeOnEveryWriteAndSurviveRecreation() {
+        Employee e = new Employee("V", "EMP_V_1", "R");
+        repo.save(e);
+        long created = repo.findVersions(List.of("EMP_V_1", "EMP_V_missing")).get("EMP_V_1");
+        assertThat(repo.findVersions(List.of("EMP_V_missing"))).isEmpty();
+        assertThat(repo.findById("EMP_V_1").orElseThrow().getVersion()).isEqualTo(created);
+        assertThat(e.getVersion()).isEqualTo(created);
+
+        Employee loaded = repo.findById("EMP_V_1").orElseThrow();
+        loaded.addShift(new Shift("V-1", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        repo.save(loaded);   // delta
+        long afterDelta = repo.findVersions(List.of("EMP_V_1")).get("EMP_V_1");
+        assertThat(loaded.getVersion()).isEqualTo(afterDelta);
+
+        Instant start = Instant.parse("2025-11-04T08:00:00Z");
+        Employee afterAdd = repo.addShiftIfNoConflict("EMP_V_1", new Shift("V-2", start, start.plus(Duration.ofHours(2)))).orElseThrow();
+
+        repo.deleteById("EMP_V_1");
+        repo.save(new Employee("V", "EMP_V_1", "R"));
+        long recreated = repo.findVersions(List.of("EMP_V_1")).get("EMP_V_1");
+
+        assertThat(afterDelta).isEqualTo(created + 1);
+        assertThat(afterAdd.getVersion()).isEqualTo(afterDelta + 1);
+        assertThat(recreated).isGreaterThan(afterAdd.getVersion());
+    }
+
+    @Test
+    void versions_shouldBeAssignedByTheServerAcrossRepositoryInstances() {
+        MongoEmployeeRepository other = new MongoEmployeeRepository(testDb, false);
+        repo.save(new Employee("V", "EMP_V_2", "R"));
+        long created = repo.findVersions(List.of("EMP_V_2")).get("EMP_V_2");
+
+        Employee mine = repo.findById("EMP_V_2").orElseThrow();
+        Employee theirs = other.findById("EMP_V_2").orElseThrow();
+        theirs.addShift(new Shift("V-3", Instant.parse("2025-11-03T08:00:00Z"), Instant.parse("2025-11-03T12:00:00Z")));
+        other.save(theirs);
+        mine.addShift(new Shift("V-4", Instant.parse("2025-11-04T08:00:00Z"), Instant.parse("2025-11-04T12:00:00Z")));
+        repo.save(mine);
+        List<Employee> batch = repo.saveAll(List.of(new Employee("W", "EMP_V_3", "R")));
+
+        assertThat(theirs.getVersion()).isEqualTo(created + 1);
+        assertThat(mine.getVersion()).isEqualTo(created + 2);
+        assertThat(repo.findVersions(List.of("EMP_V_2", "EMP_V_3")))
+                .containsEntry("EMP_V_2", created + 2)
+                .containsEntry("EMP_V_3", batch.get(0).getVersion());
+    }
 }